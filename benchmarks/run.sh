@@ -0,0 +1,13 @@
+#!/usr/bin/env bash
+# Runs the benchmarks with the GC profiler and stores the results in results/<name>.json and .txt.
+# Usage: ./run.sh [name] [jmh options...]   name defaults to `git describe`
+set -euo pipefail
+cd "$(dirname "$0")"
+NAME=${1:-$(git describe --tags --always --dirty)}
+shift || true
+mvn -B -q package
+mkdir -p results
+java -jar target/benchmarks.jar -prof gc -rf json -rff "results/$NAME.json" "$@" | tee "results/$NAME.log"
+# the summary table only, stable enough to diff between versions
+sed -n '/^Benchmark /,$p' "results/$NAME.log" > "results/$NAME.txt"
+rm "results/$NAME.log"
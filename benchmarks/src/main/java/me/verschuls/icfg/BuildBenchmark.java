@@ -0,0 +1,50 @@
+package me.verschuls.icfg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigManager.Builder#build} of a generated document: parsing, updater merge and
+ * injection of a nested config graph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BuildBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int keys;
+
+    @Param({"1", "4", "8"})
+    public int depth;
+
+    private Path directory;
+    private byte[] defaults;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("icfg-build");
+        // defaults equal to the file, the updater has nothing to add and the file is never rewritten
+        defaults = Files.readAllBytes(ConfigGenerator.write(directory, "config.yml", keys, depth));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.delete(directory);
+    }
+
+    @Benchmark
+    public ConfigManager build() {
+        return ConfigManager.builderMCPlugin("config.yml", directory, new ByteArrayInputStream(defaults))
+                .register(ConfigGenerator.root(depth))
+                .build(manager -> {}, errors -> {});
+    }
+}
@@ -0,0 +1,126 @@
+package me.verschuls.icfg;
+
+import me.verschuls.icfg.annotations.ConfigInfo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Generates YAML documents and matching {@link IConfig} graphs for the benchmarks.
+ *
+ * <p>A document holds {@code keys} unbound leaf values spread over sections of 100 entries,
+ * plus a chain of {@code depth} nested levels starting at the document root, bound by {@link #root(int)}.
+ */
+final class ConfigGenerator {
+
+    static final int MAX_DEPTH = 8;
+
+    private ConfigGenerator() {}
+
+    static String generate(int keys) {
+        return generate(keys, 0);
+    }
+
+    static String generate(int keys, int depth) {
+        StringBuilder sb = new StringBuilder(keys * 48 + depth * 128);
+        sb.append("# generated, ").append(keys).append(" keys, depth ").append(depth).append('\n');
+        if (depth > 0) {
+            for (int level = 1; level <= depth; level++) {
+                String indent = "  ".repeat(level - 1);
+                sb.append(indent).append("number: ").append(level).append('\n');
+                sb.append(indent).append("text: \"level ").append(level).append("\"\n");
+                sb.append(indent).append("ratio: ").append(level / 10.0).append('\n');
+                sb.append(indent).append("enabled: ").append(level % 2 == 0).append('\n');
+                sb.append(indent).append("values: [").append(level).append(", ").append(level + 1).append("]\n");
+                if (level < depth) sb.append(indent).append("next:\n");
+            }
+        }
+        for (int i = 0; i < keys; i++) {
+            if (i % 100 == 0) sb.append("section").append(i / 100).append(":\n");
+            sb.append("  key").append(i).append(": ");
+            switch (i % 4) {
+                case 0 -> sb.append("\"value number ").append(i).append("\"");
+                case 1 -> sb.append(i);
+                case 2 -> sb.append(i % 3 == 0);
+                default -> sb.append("[").append(i).append(", ").append(i + 1).append(", ").append(i + 2).append("]");
+            }
+            sb.append('\n');
+        }
+        return sb.toString();
+    }
+
+    static Path write(Path directory, String name, int keys) throws IOException {
+        return write(directory, name, keys, 0);
+    }
+
+    static Path write(Path directory, String name, int keys, int depth) throws IOException {
+        Files.createDirectories(directory);
+        return Files.writeString(directory.resolve(name), generate(keys, depth));
+    }
+
+    /**
+     * Creates the root of a config graph binding {@code depth} nested levels, 1 to {@link #MAX_DEPTH}.
+     */
+    static IConfig root(int depth) {
+        if (depth < 1 || depth > MAX_DEPTH) throw new IllegalArgumentException("depth " + depth);
+        return LEVELS.get(MAX_DEPTH - depth).get();
+    }
+
+    private static final List<Supplier<IConfig>> LEVELS = List.of(
+            Level1::new, Level2::new, Level3::new, Level4::new, Level5::new, Level6::new, Level7::new, Level8::new);
+
+    /*
+     * One class per level, a self-referencing class would be instantiated endlessly.
+     * Level8 is the deepest one, a graph of depth d starts at Level(9 - d).
+     */
+
+    @ConfigInfo(allFields = true)
+    static class Level1 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level2 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level2 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level3 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level3 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level4 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level4 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level5 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level5 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level6 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level6 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level7 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level7 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+        Level8 next;
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Level8 implements IConfig {
+        int number; String text; double ratio; boolean enabled; List<Integer> values;
+    }
+}
@@ -0,0 +1,71 @@
+package me.verschuls.icfg;
+
+import me.verschuls.icfg.annotations.ConfigInfo;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigManager#directory} of a folder of small shard files, against building one
+ * {@link ConfigManager} per file sequentially.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DirectoryBenchmark {
+
+    @ConfigInfo(allFields = true)
+    public static class Shard implements IConfig {
+        String name;
+        int size;
+        double ratio;
+        boolean enabled;
+        List<String> spawns;
+    }
+
+    @Param({"100", "1000"})
+    public int shards;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("icfg-directory");
+        for (int i = 0; i < shards; i++)
+            Files.writeString(directory.resolve("shard" + i + ".yml"),
+                    "name: shard" + i + "\nsize: " + i + "\nratio: 0.5\nenabled: true\nspawns:\n- a\n- b\n");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.delete(directory);
+    }
+
+    @Benchmark
+    public ConfigDirectory<Shard> directory() throws IOException {
+        return ConfigManager.directory(directory, Shard.class);
+    }
+
+    @Benchmark
+    public int sequential() throws IOException {
+        int loaded = 0;
+        for (int i = 0; i < shards; i++) {
+            String file = "shard" + i + ".yml";
+            // the file itself as defaults, the updater has nothing to add
+            byte[] defaults = Files.readAllBytes(directory.resolve(file));
+            ConfigManager.builderMCPlugin(file, directory, new ByteArrayInputStream(defaults))
+                    .register(new Shard())
+                    .build(manager -> {}, errors -> {});
+            loaded++;
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,107 @@
+package me.verschuls.icfg;
+
+import dev.dejvokep.boostedyaml.YamlDocument;
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigUtils#getValue} per value type, and the same reads through {@link ConfigKey}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GetValueBenchmark {
+
+    private static final String YAML = """
+            db:
+              pool:
+                host: "localhost"
+                size: 10
+                timeout: 30000000000
+                ratio: 0.75
+                enabled: true
+                big: 123456789012345678901234567890
+                ports: [80, 443, 8080]
+            """;
+
+    private static final ConfigKey<String> HOST = ConfigKey.of("db.pool.host", String.class);
+    private static final ConfigKey.IntKey SIZE = ConfigKey.ofInt("db.pool.size", 0);
+
+    private ConfigUtils utils;
+    private ConfigManager manager;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        utils = ConfigUtils.of(YamlDocument.create(new ByteArrayInputStream(YAML.getBytes(StandardCharsets.UTF_8))));
+        Path directory = Files.createTempDirectory("icfg-get");
+        manager = ConfigManager.builderMCPlugin("config.yml", directory, new ByteArrayInputStream(YAML.getBytes(StandardCharsets.UTF_8)))
+                .build(manager -> {}, errors -> {});
+    }
+
+    @Benchmark
+    public String string() {
+        return utils.getValue("db.pool.host", String.class);
+    }
+
+    @Benchmark
+    public Integer integer() {
+        return utils.getValue("db.pool.size", Integer.class);
+    }
+
+    @Benchmark
+    public Long longValue() {
+        return utils.getValue("db.pool.timeout", Long.class);
+    }
+
+    @Benchmark
+    public Double doubleValue() {
+        return utils.getValue("db.pool.ratio", Double.class);
+    }
+
+    @Benchmark
+    public Boolean booleanValue() {
+        return utils.getValue("db.pool.enabled", Boolean.class);
+    }
+
+    @Benchmark
+    public BigInteger bigInteger() {
+        return utils.getValue("db.pool.big", BigInteger.class);
+    }
+
+    @Benchmark
+    public List<?> list() {
+        return utils.getValue("db.pool.ports", List.class);
+    }
+
+    @Benchmark
+    public int[] intArray() {
+        return utils.getValue("db.pool.ports", int[].class);
+    }
+
+    @Benchmark
+    public Section section() {
+        return utils.getValue("db.pool", Section.class);
+    }
+
+    @Benchmark
+    public String keyString() {
+        return manager.get(HOST);
+    }
+
+    @Benchmark
+    public int keyInt() {
+        return manager.getInt(SIZE);
+    }
+}
@@ -0,0 +1,54 @@
+package me.verschuls.icfg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a large config through the stream path and the memory-mapped path
+ * ({@link ConfigManager.Builder#memoryMapped(boolean)}). Run with {@code -prof gc} to compare
+ * the allocation per load, {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class MappedReadBenchmark {
+
+    /**
+     * 20k keys are about 0.5 MB, 200k keys about 5 MB.
+     */
+    @Param({"20000", "200000"})
+    public int keys;
+
+    @Param({"false", "true"})
+    public boolean mapped;
+
+    private Path directory;
+    private byte[] defaults;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("icfg-mapped");
+        // defaults equal to the file, so the updater neither adds nor removes anything and the file is never rewritten
+        defaults = Files.readAllBytes(ConfigGenerator.write(directory, "config.yml", keys));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.delete(directory);
+    }
+
+    @Benchmark
+    public ConfigManager load() {
+        return ConfigManager.builderMCPlugin("config.yml", directory, new ByteArrayInputStream(defaults))
+                .memoryMapped(mapped)
+                .build(manager -> {}, errors -> {});
+    }
+}
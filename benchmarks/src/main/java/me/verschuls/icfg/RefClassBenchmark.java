@@ -0,0 +1,27 @@
+package me.verschuls.icfg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Construction of a binding plan, uncached and through the {@link RefUtils} cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RefClassBenchmark {
+
+    @Benchmark
+    public RefClass<?> construct() {
+        return new RefClass<>(ConfigGenerator.Level1.class);
+    }
+
+    @Benchmark
+    public RefClass<?> cached() {
+        return RefUtils.fromClass(ConfigGenerator.Level1.class);
+    }
+}
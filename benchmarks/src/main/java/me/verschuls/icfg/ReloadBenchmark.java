@@ -0,0 +1,63 @@
+package me.verschuls.icfg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ConfigManager#reload()} of an unchanged file and of a file where one bound value
+ * changes between reloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReloadBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int keys;
+
+    @Param({"1", "8"})
+    public int depth;
+
+    @Param({"false", "true"})
+    public boolean changed;
+
+    private Path directory;
+    private Path file;
+    private String[] contents;
+    private int next;
+    private ConfigManager manager;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("icfg-reload");
+        file = ConfigGenerator.write(directory, "config.yml", keys, depth);
+        String content = Files.readString(file);
+        contents = new String[]{content, content.replaceFirst("number: 1\n", "number: 2\n")};
+        manager = ConfigManager.builderMCPlugin("config.yml", directory, new ByteArrayInputStream(content.getBytes()))
+                .register(ConfigGenerator.root(depth))
+                .build(manager -> {}, errors -> {});
+    }
+
+    @Setup(Level.Invocation)
+    public void change() throws IOException {
+        if (changed) Files.writeString(file, contents[next ^= 1]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.delete(directory);
+    }
+
+    @Benchmark
+    public ReloadResult reload() {
+        return manager.reload();
+    }
+}
@@ -0,0 +1,42 @@
+package me.verschuls.icfg;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VersionCompare#compare} and {@link VersionCompare#isValid}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VersionCompareBenchmark {
+
+    @Param({"1", "1.2.3", "10.20.30.40"})
+    public String version;
+
+    public String other;
+
+    @Setup
+    public void setup() {
+        other = version + ".1";
+    }
+
+    @Benchmark
+    public VersionCompare.Result equal() {
+        return VersionCompare.compare(version, version);
+    }
+
+    @Benchmark
+    public VersionCompare.Result lesser() {
+        return VersionCompare.compare(version, other);
+    }
+
+    @Benchmark
+    public boolean valid() {
+        return VersionCompare.isValid(version);
+    }
+}
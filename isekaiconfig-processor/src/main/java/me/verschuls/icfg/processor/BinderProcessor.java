@@ -0,0 +1,269 @@
+package me.verschuls.icfg.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * Generates a reflection-free {@code Binder} for every {@code IConfig} class using
+ * {@code @ConfigInfo} or {@code @IField}.
+ *
+ * <p>Binders write fields directly, so every bound field must be non-private and non-final,
+ * nested configs need a non-private no-arg constructor and custom types constructed from the
+ * configuration a non-private first constructor. Classes not meeting these rules are skipped
+ * with a note and keep using reflection at runtime.
+ *
+ * <p>Custom types follow the reflective rules: only the first declared constructor is used, and
+ * only if it takes one argument. Fields of other custom types are bound through a type registered
+ * with {@code ConfigManager.registerType} and left as they are without one.
+ */
+@SupportedAnnotationTypes({BinderProcessor.CONFIG_INFO, BinderProcessor.I_FIELD})
+public class BinderProcessor extends AbstractProcessor {
+
+    static final String CONFIG_INFO = "me.verschuls.icfg.annotations.ConfigInfo";
+    static final String I_FIELD = "me.verschuls.icfg.annotations.IField";
+    private static final String I_CONFIG = "me.verschuls.icfg.IConfig";
+    private static final String BINDER = "me.verschuls.icfg.Binder";
+    private static final String LAZY = "me.verschuls.icfg.Lazy";
+    private static final String SUFFIX = "_Binder";
+
+    private static final Set<String> BASIC = Set.of(
+            "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.Float",
+            "java.lang.Short", "java.lang.Byte", "java.lang.Boolean", "java.lang.Character", "java.math.BigInteger",
+            "java.util.List", "java.util.HashMap", "dev.dejvokep.boostedyaml.block.implementation.Section",
+            "int", "long", "double", "float", "short", "byte", "boolean", "char", "int[]", "long[]", "double[]");
+    private static final Set<String> IN_LIST = Set.of(
+            "java.lang.String", "java.lang.Integer", "java.lang.Long", "java.lang.Double", "java.lang.Float", "java.lang.Boolean");
+
+    private final Set<String> generated = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.CLASS) types.add((TypeElement) element);
+                else if (element.getKind() == ElementKind.FIELD
+                        && element.getEnclosingElement().getKind() == ElementKind.CLASS)
+                    types.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+        TypeElement iConfig = processingEnv.getElementUtils().getTypeElement(I_CONFIG);
+        if (iConfig == null) return false;
+        for (TypeElement type : types) {
+            if (!isConfig(type.asType(), iConfig)) continue;
+            if (!generated.add(type.getQualifiedName().toString())) continue;
+            String reason = check(type);
+            if (reason != null) {
+                note(type, "No binder generated for " + type.getQualifiedName() + ", " + reason + ". Falling back to reflection");
+                continue;
+            }
+            try {
+                write(type, iConfig);
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                        "Couldn't write binder for " + type.getQualifiedName() + ": " + e.getMessage(), type);
+            }
+        }
+        return false;
+    }
+
+    private String check(TypeElement type) {
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) return "class is abstract";
+        if (!type.getTypeParameters().isEmpty()) return "class is generic";
+        for (Element element = type; element instanceof TypeElement enclosing; element = element.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) return "class is not accessible";
+            if (enclosing.getNestingKind() == NestingKind.LOCAL || enclosing.getNestingKind() == NestingKind.ANONYMOUS)
+                return "class is not a top level or member class";
+            if (enclosing.getNestingKind() == NestingKind.MEMBER && !enclosing.getModifiers().contains(Modifier.STATIC))
+                return "class is an inner class";
+        }
+        TypeElement iConfig = processingEnv.getElementUtils().getTypeElement(I_CONFIG);
+        for (VariableElement field : boundFields(type)) {
+            if (field.getModifiers().contains(Modifier.PRIVATE)) return "field \"" + field.getSimpleName() + "\" is private";
+            if (field.getModifiers().contains(Modifier.FINAL)) return "field \"" + field.getSimpleName() + "\" is final";
+            TypeMirror fieldType = field.asType();
+            if (isConfig(fieldType, iConfig)) {
+                TypeElement nested = (TypeElement) ((DeclaredType) fieldType).asElement();
+                if (nested.getModifiers().contains(Modifier.ABSTRACT) || noArgConstructor(nested) == null)
+                    return "nested config \"" + field.getSimpleName() + "\" has no accessible no-arg constructor";
+                continue;
+            }
+            String erased = erasure(fieldType);
+            ExecutableElement constructor = BASIC.contains(erased) || erased.equals(LAZY) ? null : customConstructor(fieldType);
+            if (constructor != null && (constructor.getModifiers().contains(Modifier.PRIVATE)
+                    || constructor.getEnclosingElement().getModifiers().contains(Modifier.ABSTRACT)))
+                return "custom type of field \"" + field.getSimpleName() + "\" can only be created through reflection";
+        }
+        return null;
+    }
+
+    /**
+     * Mirrors the field selection of {@code RefClass}: non-static fields of a supported type,
+     * all of them when {@code @ConfigInfo(allFields = true)}, otherwise the {@code @IField} ones.
+     * Whether a custom type without {@link #customConstructor} is supported is only known at runtime.
+     */
+    private List<VariableElement> boundFields(TypeElement type) {
+        boolean allFields = Boolean.TRUE.equals(value(annotation(type, CONFIG_INFO), "allFields"));
+        TypeElement iConfig = processingEnv.getElementUtils().getTypeElement(I_CONFIG);
+        List<VariableElement> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) continue;
+            boolean annotated = annotation(field, I_FIELD) != null;
+            if (!annotated && !allFields) continue;
+            TypeMirror fieldType = field.asType();
+            String name = erasure(fieldType);
+            if (fieldType.getKind() != TypeKind.DECLARED && !BASIC.contains(name)) continue;
+            if (name.equals("java.util.List")) {
+                List<? extends TypeMirror> args = ((DeclaredType) fieldType).getTypeArguments();
+                if (args.size() != 1 || !IN_LIST.contains(erasure(args.get(0)))) continue;
+            }
+            fields.add(field);
+        }
+        return fields;
+    }
+
+    private void write(TypeElement type, TypeElement iConfig) throws IOException {
+        String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+        String binary = processingEnv.getElementUtils().getBinaryName(type).toString();
+        String simple = (packageName.isEmpty() ? binary : binary.substring(packageName.length() + 1)).replace('$', '_') + SUFFIX;
+        String target = type.getQualifiedName().toString();
+
+        StringBuilder out = new StringBuilder();
+        if (!packageName.isEmpty()) out.append("package ").append(packageName).append(";\n\n");
+        out.append("/**\n * Generated by ").append(getClass().getName()).append(", do not edit.\n */\n");
+        out.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        out.append("public final class ").append(simple).append(" implements ").append(BINDER).append('<').append(target).append("> {\n\n");
+        out.append("    @Override\n");
+        out.append("    public void bind(").append(target).append(" config, ").append(BINDER).append(".Context context) {\n");
+        for (VariableElement field : boundFields(type)) {
+            String name = field.getSimpleName().toString();
+            AnnotationMirror iField = annotation(field, I_FIELD);
+            Object rawPath = value(iField, "path");
+            String path = rawPath == null || rawPath.toString().isEmpty() ? name : rawPath.toString();
+            boolean required = Boolean.TRUE.equals(value(iField, "required"));
+            TypeMirror fieldType = field.asType();
+            String erased = erasure(fieldType);
+            if (isConfig(fieldType, iConfig)) {
+                TypeElement nested = (TypeElement) ((DeclaredType) fieldType).asElement();
+                Object section = value(annotation(nested, CONFIG_INFO), "name");
+                out.append("        config.").append(name).append(" = context.nested(").append(literal(path))
+                        .append(", config.").append(name).append(", ").append(nested.getQualifiedName()).append("::new, ")
+                        .append(literal(section == null ? "" : section.toString())).append(");\n");
+                continue;
+            }
+            if (erased.equals(LAZY)) {
+                List<? extends TypeMirror> args = ((DeclaredType) fieldType).getTypeArguments();
+                String lazyType = args.size() == 1 ? erasure(args.get(0)) : "java.lang.Object";
+                out.append("        config.").append(name).append(" = context.lazy(").append(literal(path)).append(", config.")
+                        .append(name).append(", ").append(lazyType).append(".class, ").append(required).append(");\n");
+                continue;
+            }
+            ExecutableElement constructor = BASIC.contains(erased) ? null : customConstructor(fieldType);
+            if (constructor != null) {
+                // the declared parameter type, a primitive one reads a missing value like reflection does
+                TypeMirror arg = constructor.getParameters().get(0).asType();
+                out.append("        if (context.changed(").append(literal(path)).append(")) {\n");
+                out.append("            try {\n");
+                out.append("                config.").append(name).append(" = new ").append(erased).append("(context.argument(")
+                        .append(literal(path)).append(", ").append(erasure(arg)).append(".class));\n");
+                out.append("            } catch (RuntimeException e) {\n");
+                out.append("                context.error(").append(literal(path)).append(");\n");
+                out.append("            }\n");
+                out.append("        }\n");
+                continue;
+            }
+            out.append("        config.").append(name).append(" = context.value(").append(literal(path)).append(", ")
+                    .append(erased).append(".class, config.").append(name).append(", ").append(required).append(");\n");
+        }
+        out.append("    }\n}\n");
+
+        JavaFileObject file = processingEnv.getFiler().createSourceFile(
+                packageName.isEmpty() ? simple : packageName + "." + simple, type);
+        try (Writer writer = file.openWriter()) {
+            writer.write(out.toString());
+        }
+    }
+
+    private boolean isConfig(TypeMirror type, TypeElement iConfig) {
+        return type.getKind() == TypeKind.DECLARED
+                && processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(type), iConfig.asType());
+    }
+
+    private ExecutableElement noArgConstructor(TypeElement type) {
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements()))
+            if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE))
+                return constructor;
+        return null;
+    }
+
+    /**
+     * The constructor {@code RefClass} creates a custom type with: the first declared one, used only
+     * if it takes a single argument. The outer instance of an inner class counts as argument.
+     *
+     * @return the constructor, or {@code null} if reflection doesn't construct the type
+     */
+    private ExecutableElement customConstructor(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) return null;
+        TypeElement element = (TypeElement) ((DeclaredType) type).asElement();
+        if (element.getKind() != ElementKind.CLASS && element.getKind() != ElementKind.RECORD) return null;
+        if (element.getNestingKind() == NestingKind.MEMBER && !element.getModifiers().contains(Modifier.STATIC)) return null;
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(element.getEnclosedElements());
+        if (constructors.isEmpty() || constructors.get(0).getParameters().size() != 1) return null;
+        return constructors.get(0);
+    }
+
+    private String erasure(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED)
+            return ((TypeElement) ((DeclaredType) erased).asElement()).getQualifiedName().toString();
+        return erased.toString();
+    }
+
+    private static AnnotationMirror annotation(Element element, String name) {
+        for (AnnotationMirror mirror : element.getAnnotationMirrors())
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(name))
+                return mirror;
+        return null;
+    }
+
+    private static Object value(AnnotationMirror mirror, String name) {
+        if (mirror == null) return null;
+        for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet())
+            if (entry.getKey().getSimpleName().contentEquals(name)) return entry.getValue().getValue();
+        return null;
+    }
+
+    private static String literal(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private void note(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, message, element);
+    }
+}
@@ -0,0 +1,125 @@
+package me.verschuls.icfg.processor;
+
+import me.verschuls.icfg.ConfigManager;
+import me.verschuls.icfg.IConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinderProcessorTest {
+
+    private static final String CONFIG = """
+            package demo;
+
+            import me.verschuls.icfg.IConfig;
+            import me.verschuls.icfg.annotations.ConfigInfo;
+            import me.verschuls.icfg.annotations.IField;
+
+            @ConfigInfo(allFields = true)
+            public class Custom implements IConfig {
+
+                public static class Empty {
+                    final String value = "init";
+                }
+
+                public static class Plain {
+                    final String value;
+                    public Plain() { value = "init"; }
+                    public Plain(String value) { this.value = value; }
+                }
+
+                public static class Pair {
+                    final String value;
+                    public Pair(String first, String second) { value = first + second; }
+                    public Pair(String value) { this.value = value; }
+                }
+
+                public static class Wrapped {
+                    final String value;
+                    public Wrapped(String value) { this.value = value; }
+                }
+
+                public static class Counted {
+                    final String value;
+                    public Counted(int value) { this.value = "int " + value; }
+                    public Counted(String value) { this.value = "string " + value; }
+                }
+
+                @IField
+                Empty empty = new Empty();
+                @IField
+                Plain plain = new Plain();
+                Pair pair = new Pair("in", "it");
+                Wrapped wrapped = new Wrapped("init");
+                Counted counted = new Counted("init");
+                Counted missing = new Counted("init");
+
+                @Override
+                public String toString() {
+                    return empty.value + " " + plain.value + " " + pair.value + " " + wrapped.value + " " + counted.value + " " + missing.value;
+                }
+            }
+            """;
+
+    private static final String YAML = "empty: file\nplain: file\npair: file\nwrapped: file\ncounted: 7\n";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void customTypesBindLikeReflection() throws Exception {
+        Path source = dir.resolve("src/demo/Custom.java");
+        Files.createDirectories(source.getParent());
+        Files.writeString(source, CONFIG);
+        Path generated = compile(source, "generated", true);
+        Path reflective = compile(source, "reflective", false);
+        assertTrue(Files.exists(generated.resolve("demo/Custom_Binder.class")));
+        assertFalse(Files.exists(reflective.resolve("demo/Custom_Binder.class")));
+
+        String reflection = load(reflective, "reflective.yml");
+        assertEquals(load(generated, "generated.yml"), reflection);
+        assertEquals("init init init file int 7 int 0", reflection);
+    }
+
+    private Path compile(Path source, String name, boolean process) throws IOException {
+        Path out = Files.createDirectories(dir.resolve(name));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = files.getJavaFileObjects(source);
+            List<String> options = new ArrayList<>(List.of("-d", out.toString(), "-classpath", System.getProperty("java.class.path")));
+            if (!process) options.add("-proc:none");
+            JavaCompiler.CompilationTask task = compiler.getTask(null, files, null, options, null, units);
+            if (process) task.setProcessors(List.of(new BinderProcessor()));
+            assertTrue(task.call(), "compilation of " + name + " failed");
+        }
+        return out;
+    }
+
+    private String load(Path classes, String file) throws Exception {
+        Files.writeString(dir.resolve(file), YAML);
+        try (URLClassLoader loader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            IConfig config = (IConfig) loader.loadClass("demo.Custom").getConstructor().newInstance();
+            List<List<String>> failures = new ArrayList<>();
+            ConfigManager.builderMCPlugin(file, dir, new ByteArrayInputStream(YAML.getBytes(StandardCharsets.UTF_8)))
+                    .register(config)
+                    .build(manager -> {}, failures::add);
+            assertEquals(List.of(), failures);
+            return config.toString();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package me.verschuls.icfg;
+
+import java.util.function.Supplier;
+
+/**
+ * Reflection-free field binder for an {@link IConfig} class.
+ *
+ * <p>Binders are generated at compile time by the {@code isekaiconfig-processor}
+ * annotation processor, one per {@link IConfig} implementation, and named after the
+ * config class: {@code com.example.Outer.DatabaseConfig} is bound by
+ * {@code com.example.Outer_DatabaseConfig_Binder}. When a binder is present on the
+ * classpath {@link ConfigManager} uses it instead of reflection, otherwise it falls
+ * back to the reflective binding.
+ *
+ * <p>Binders are not meant to be written by hand, the {@link Context} contract may
+ * change between versions together with the processor.
+ *
+ * @param <T> the bound config type
+ * @see IConfig
+ * @since 1.0
+ */
+public interface Binder<T extends IConfig> {
+
+    /**
+     * Suffix appended to the flattened config class name to form the binder class name.
+     */
+    String SUFFIX = "_Binder";
+
+    /**
+     * Binds every field of {@code config} from the configuration.
+     *
+     * @param config the instance to bind
+     * @param context the binding context, paths passed to it are relative to the config section
+     */
+    void bind(T config, Context context);
+
+    /**
+     * Values and nested configs available to a {@link Binder}.
+     */
+    interface Context {
+
+        /**
+         * Whether the value at {@code path} has to be bound, {@code false} when it is unchanged
+         * since the last load and the field can be left as is.
+         *
+         * @param path the path relative to the config section
+         * @return {@code true} if the field should be bound
+         */
+        boolean changed(String path);
+
+        /**
+         * Resolves a basic value ({@link String}, numbers and primitives, {@link Boolean},
+         * {@code int[]}/{@code long[]}/{@code double[]}, {@link java.util.List List},
+         * {@link dev.dejvokep.boostedyaml.block.implementation.Section Section}, {@link java.util.HashMap HashMap}
+         * or a type registered through {@link ConfigManager#registerType}). Fields of other types
+         * are left as they are.
+         *
+         * @param path the path relative to the config section
+         * @param type the field type
+         * @param current the value the field currently holds
+         * @param required whether the value is required
+         * @return the value to assign
+         */
+        <V> V value(String path, Class<V> type, V current, boolean required);
+
+        /**
+         * Reads the single constructor argument of a custom type.
+         *
+         * @param path the path relative to the config section
+         * @param type the constructor parameter type
+         * @return the argument, may be {@code null}
+         */
+        <V> V argument(String path, Class<V> type);
+
+        /**
+         * Schedules a nested config for binding.
+         *
+         * @param path the path relative to the config section
+         * @param current the nested instance the field currently holds, reused on incremental reloads
+         * @param factory creates a new nested instance
+         * @param section the {@link me.verschuls.icfg.annotations.ConfigInfo#name() ConfigInfo name}
+         *                of the nested class, empty if none
+         * @return the instance to assign
+         */
+        <V extends IConfig> V nested(String path, V current, Supplier<V> factory, String section);
+
+        /**
+         * Binds a {@link Lazy} field, the value is resolved on its first access.
+         *
+         * @param path the path relative to the config section
+         * @param current the instance the field currently holds, may be {@code null}
+         * @param type the type argument of the {@link Lazy}
+         * @param required whether the value is required
+         * @return the instance to assign
+         */
+        <V> Lazy<V> lazy(String path, Lazy<V> current, Class<?> type, boolean required);
+
+        /**
+         * Reports a value that could not be bound.
+         *
+         * @param path the path relative to the config section
+         */
+        void error(String path);
+    }
+}
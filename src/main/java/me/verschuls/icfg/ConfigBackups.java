@@ -0,0 +1,143 @@
+package me.verschuls.icfg;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Backups of a configuration file, written next to it before a save replaces its content.
+ *
+ * <p>Backups are written on {@code executor}, one after another in the order they were requested,
+ * the saving thread only hands over the old content. {@code %nr%} in the prefix is replaced by an
+ * increasing number, the highest being the newest backup, and the oldest ones beyond
+ * {@code maxBackups} are deleted. Without {@code %nr%} there is a single backup that is overwritten.
+ * A backup is skipped if the content equals the newest backup.
+ */
+final class ConfigBackups {
+
+    private static final String NUMBER = "%nr%";
+
+    private final Path config;
+    private final String prefix;
+    private final int maxBackups;
+    private final boolean gzip;
+    private final Executor executor;
+    private final Pattern pattern;
+    private final boolean debug;
+
+    private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+    /**
+     * Length and CRC32C of the newest backup, {@code -1} until it was read or written. Only touched by backup tasks.
+     */
+    private long newestLength = -1, newestCrc;
+
+    ConfigBackups(Path config, String prefix, int maxBackups, boolean gzip, Executor executor, boolean debug) {
+        this.config = config.toAbsolutePath();
+        this.prefix = prefix;
+        this.maxBackups = maxBackups;
+        this.gzip = gzip;
+        this.executor = executor;
+        this.debug = debug;
+        String suffix = config.getFileName() + (gzip ? ".gz" : "");
+        int number = prefix.indexOf(NUMBER);
+        this.pattern = number < 0 ? null : Pattern.compile(Pattern.quote(prefix.substring(0, number)) + "(\\d+)"
+                + Pattern.quote(prefix.substring(number + NUMBER.length()) + suffix));
+    }
+
+    /**
+     * Schedules a backup of {@code content}, the file content about to be replaced.
+     */
+    synchronized void backup(ByteBuffer content) {
+        ByteBuffer copy = content.asReadOnlyBuffer();
+        tail = tail.thenRunAsync(() -> write(copy), executor);
+    }
+
+    private void write(ByteBuffer content) {
+        try {
+            byte[] bytes = new byte[content.remaining()];
+            content.duplicate().get(bytes);
+            List<Backup> existing = existing();
+            if (newestLength < 0 && !existing.isEmpty()) remember(read(existing.getLast().file));
+            if (bytes.length == newestLength && crc(bytes) == newestCrc) {
+                if (debug) System.out.println("Backup skipped, content unchanged | filename "+config.getFileName());
+                return;
+            }
+            int number = existing.isEmpty() ? 1 : existing.getLast().number + 1;
+            Path target = config.resolveSibling(prefix.replace(NUMBER, String.valueOf(number)) + config.getFileName() + (gzip ? ".gz" : ""));
+            FileUtils.writeAtomic(target, gzip ? gzip(bytes) : bytes);
+            remember(bytes);
+            // a single backup is overwritten in place, there is nothing to rotate
+            if (pattern != null && maxBackups >= 0) {
+                existing.add(new Backup(target, number));
+                for (int i = 0; i < existing.size() - maxBackups; i++)
+                    if (!existing.get(i).file.equals(target)) Files.deleteIfExists(existing.get(i).file);
+            }
+            if (debug) System.out.println("Backup written "+target.getFileName()+" | filename "+config.getFileName());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Couldn't write config backup | "+config.getFileName());
+            if (debug) e.printStackTrace(System.console().writer());
+        }
+    }
+
+    /**
+     * @return the existing backups, oldest first
+     */
+    private List<Backup> existing() throws IOException {
+        List<Backup> backups = new ArrayList<>();
+        if (pattern == null) {
+            Path single = config.resolveSibling(prefix + config.getFileName() + (gzip ? ".gz" : ""));
+            if (Files.isRegularFile(single)) backups.add(new Backup(single, 0));
+            return backups;
+        }
+        try (Stream<Path> files = Files.list(config.getParent())) {
+            files.forEach(file -> {
+                Matcher matcher = pattern.matcher(file.getFileName().toString());
+                if (matcher.matches()) backups.add(new Backup(file, Integer.parseInt(matcher.group(1))));
+            });
+        }
+        backups.sort(Comparator.comparingInt(Backup::number));
+        return backups;
+    }
+
+    private void remember(byte[] bytes) {
+        newestLength = bytes.length;
+        newestCrc = crc(bytes);
+    }
+
+    private byte[] read(Path file) throws IOException {
+        if (!gzip) return Files.readAllBytes(file);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    private record Backup(Path file, int number) {}
+}
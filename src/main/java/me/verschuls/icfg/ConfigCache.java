@@ -0,0 +1,235 @@
+package me.verschuls.icfg;
+
+import dev.dejvokep.boostedyaml.block.Block;
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+import me.verschuls.icfg.annotations.ConfigInfo;
+
+import java.io.*;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary sidecar cache of a merged configuration, {@code .config.yml.icache} next to {@code config.yml}.
+ *
+ * <p>The cache holds the tree as it was saved after the last load together with fingerprints
+ * of the config file, the bundled resource and the bound class schema. While all of them
+ * match, the tree can be restored without parsing the YAML or running the updater.
+ *
+ * <p>Format: magic, format version, file size, file CRC32C, resource CRC32C, schema hash,
+ * followed by the tagged tree. Trees holding values without a binary encoding are not cached.
+ */
+final class ConfigCache {
+
+    private static final int MAGIC = 0x49434643; // ICFC
+    private static final byte FORMAT = 1;
+
+    private static final byte NULL = 0, STRING = 1, INT = 2, LONG = 3, DOUBLE = 4, FLOAT = 5,
+            BOOLEAN = 6, BIG_INTEGER = 7, MAP = 8, LIST = 9;
+
+    private final Path config;
+    private final Path file;
+    private final long resource;
+    private final long schema;
+
+    ConfigCache(Path config, byte[] resource, long schema) {
+        this.config = config;
+        this.file = config.resolveSibling("." + config.getFileName() + ".icache");
+        this.resource = crc(resource);
+        this.schema = schema;
+    }
+
+    /**
+     * Reads the cached tree.
+     *
+     * @return the tree, or {@code null} if there is no cache or any fingerprint differs
+     */
+    Map<Object, Object> read() {
+        try {
+            byte[] content = Files.readAllBytes(config);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                if (in.readInt() != MAGIC || in.readByte() != FORMAT) return null;
+                if (in.readLong() != content.length || in.readLong() != crc(content)) return null;
+                if (in.readLong() != resource || in.readLong() != schema) return null;
+                return in.readByte() == MAP ? readMap(in) : null;
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable config cache | "+file);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the tree of {@code document}, fingerprinted against the config file as it is on disk now.
+     */
+    void write(Section document) {
+        try {
+            byte[] content = Files.readAllBytes(config);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(content.length);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT);
+            out.writeLong(content.length);
+            out.writeLong(crc(content));
+            out.writeLong(resource);
+            out.writeLong(schema);
+            writeSection(out, document);
+            out.flush();
+            FileUtils.writeAtomic(file, bytes.toByteArray());
+        } catch (UnsupportedOperationException e) {
+            delete();
+        } catch (IOException e) {
+            System.err.println("Couldn't write config cache | "+file);
+        }
+    }
+
+    void delete() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {}
+    }
+
+    private static void writeSection(DataOutputStream out, Section section) throws IOException {
+        Map<Object, Block<?>> values = section.getStoredValue();
+        out.writeByte(MAP);
+        out.writeInt(values.size());
+        for (Map.Entry<Object, Block<?>> entry : values.entrySet()) {
+            write(out, entry.getKey());
+            if (entry.getValue() instanceof Section child) writeSection(out, child);
+            else write(out, entry.getValue().getStoredValue());
+        }
+    }
+
+    private static void write(DataOutputStream out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.writeByte(NULL);
+            case String string -> {
+                out.writeByte(STRING);
+                writeString(out, string);
+            }
+            case Integer number -> {
+                out.writeByte(INT);
+                out.writeInt(number);
+            }
+            case Long number -> {
+                out.writeByte(LONG);
+                out.writeLong(number);
+            }
+            case Double number -> {
+                out.writeByte(DOUBLE);
+                out.writeDouble(number);
+            }
+            case Float number -> {
+                out.writeByte(FLOAT);
+                out.writeFloat(number);
+            }
+            case Boolean bool -> {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean(bool);
+            }
+            case BigInteger number -> {
+                out.writeByte(BIG_INTEGER);
+                writeString(out, number.toString());
+            }
+            case Section section -> writeSection(out, section);
+            case Map<?, ?> map -> {
+                out.writeByte(MAP);
+                out.writeInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    write(out, entry.getKey());
+                    write(out, entry.getValue());
+                }
+            }
+            case List<?> list -> {
+                out.writeByte(LIST);
+                out.writeInt(list.size());
+                for (Object element : list) write(out, element);
+            }
+            default -> throw new UnsupportedOperationException(value.getClass().getName());
+        }
+    }
+
+    private static Object read(DataInputStream in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case STRING -> readString(in);
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case DOUBLE -> in.readDouble();
+            case FLOAT -> in.readFloat();
+            case BOOLEAN -> in.readBoolean();
+            case BIG_INTEGER -> new BigInteger(readString(in));
+            case MAP -> readMap(in);
+            case LIST -> {
+                int size = in.readInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) list.add(read(in));
+                yield list;
+            }
+            default -> throw new IOException("Unknown tag " + tag);
+        };
+    }
+
+    private static Map<Object, Object> readMap(DataInputStream in) throws IOException {
+        int size = in.readInt();
+        Map<Object, Object> map = new LinkedHashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < size; i++) map.put(read(in), read(in));
+        return map;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long crc(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+    /**
+     * Hashes what decides the merged tree besides the two files: the bound fields of every
+     * registered class and its nested configs, and the config version.
+     */
+    static long schema(Collection<Class<?>> types, String version) {
+        StringBuilder sb = new StringBuilder(String.valueOf(version));
+        Deque<Class<?>> queue = new ArrayDeque<>(types);
+        Set<Class<?>> seen = new HashSet<>();
+        while (!queue.isEmpty()) {
+            Class<?> type = queue.poll();
+            if (!seen.add(type)) continue;
+            RefClass<?> plan = RefUtils.fromClass(type);
+            ConfigInfo info = plan.getInfo();
+            sb.append('|').append(type.getName());
+            if (info != null) sb.append(':').append(info.name()).append(info.required()).append(info.allFields());
+            for (RefField field : plan.getBoundFields()) {
+                sb.append(';').append(field.getPath()).append(':').append(field.getType().getName())
+                        .append(':').append(field.isRequired());
+                if (field.getListType() != null) sb.append('<').append(field.getListType().getName());
+                if (field.getKind() == RefField.Kind.CONFIG) queue.add(field.getType());
+            }
+        }
+        // FNV-1a, 64 bit
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < sb.length(); i++) {
+            hash ^= sb.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,200 @@
+package me.verschuls.icfg;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * A folder of configuration files bound to the same {@link IConfig} class, one instance per file.
+ * Created through {@link ConfigManager#directory(Path, Class)}.
+ *
+ * <p>Every {@code .yml}/{@code .yaml} file of the folder is a shard, named after the file without
+ * extension ({@code arenas/desert.yml} is {@code desert}). Shards are loaded in parallel, all of them
+ * share the binding plan of the class and, if present, its generated {@link Binder}. Shards have no
+ * bundled defaults, so no defaults are parsed or merged per file, and a missing file is never created.
+ * A name used by both a {@code .yml} and a {@code .yaml} file is reported and neither file is loaded.
+ * Shards can be added, reloaded and removed one by one without touching the others.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * ConfigDirectory<ArenaConfig> arenas = ConfigManager.directory(dataPath.resolve("arenas"), ArenaConfig.class);
+ * ArenaConfig desert = arenas.get("desert");
+ * // after an admin created arenas/jungle.yml
+ * arenas.add("jungle");
+ * }</pre>
+ *
+ * @param <T> the config class of every shard
+ * @since 1.0
+ */
+public final class ConfigDirectory<T extends IConfig> {
+
+    private final Path directory;
+    private final Class<T> type;
+    private final Executor executor;
+    private final Map<String, ConfigManager> managers = new ConcurrentHashMap<>();
+    private final Map<String, T> configs = new ConcurrentHashMap<>();
+
+    ConfigDirectory(Path directory, Class<T> type, Executor executor) {
+        this.directory = directory;
+        this.type = type;
+        this.executor = executor;
+        if (!RefUtils.fromClass(type).hasConstructor() || RefUtils.fromClass(type).hasArguments())
+            throw new IllegalArgumentException("Class \""+type.getName()+"\" needs a no-argument constructor");
+    }
+
+    /**
+     * Loads every shard of the folder in parallel and waits for all of them.
+     * A shard that fails is reported and left out, the others still load.
+     */
+    void loadAll() throws IOException {
+        Map<String, Path> shards = new LinkedHashMap<>();
+        Set<String> duplicates = new LinkedHashSet<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = name(file);
+                if (name == null || !Files.isRegularFile(file)) continue;
+                if (shards.putIfAbsent(name, file) != null) duplicates.add(name);
+            }
+        }
+        for (String name : duplicates) {
+            shards.remove(name);
+            duplicate(name);
+        }
+        List<CompletableFuture<Void>> loads = new ArrayList<>();
+        shards.forEach((name, file) -> loads.add(CompletableFuture.runAsync(() -> load(name, file), executor)));
+        CompletableFuture.allOf(loads.toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Returns the config of a shard.
+     *
+     * @param name the shard name
+     * @return the config, or {@code null} if no such shard is loaded
+     */
+    public T get(String name) {
+        return configs.get(name);
+    }
+
+    /**
+     * Returns all loaded shards. The map is a live, unmodifiable view, shards added or removed
+     * afterward show up in it.
+     *
+     * @return the configs by shard name
+     */
+    public Map<String, T> configs() {
+        return Collections.unmodifiableMap(configs);
+    }
+
+    /**
+     * Returns the paths that failed on the last load or reload of a shard.
+     *
+     * @param name the shard name
+     * @return the failed paths, empty if the shard loaded without errors or is not loaded
+     */
+    public List<String> errors(String name) {
+        ConfigManager manager = managers.get(name);
+        return manager == null ? List.of() : manager.getErrors();
+    }
+
+    /**
+     * Loads the file of a shard, {@code <name>.yml} or {@code <name>.yaml}, replacing the shard
+     * if it is already loaded.
+     *
+     * @param name the shard name
+     * @return the new config, or {@code null} if there is no such file, there are both or it could not be loaded
+     */
+    public T add(String name) {
+        Path file = null;
+        for (String extension : new String[]{".yml", ".yaml"}) {
+            Path candidate = directory.resolve(name + extension);
+            if (!Files.isRegularFile(candidate)) continue;
+            if (file != null) {
+                duplicate(name);
+                return null;
+            }
+            file = candidate;
+        }
+        if (file != null) return load(name, file);
+        System.err.println("Couldn't find config shard \""+name+"\" | "+directory);
+        return null;
+    }
+
+    /**
+     * Reloads a single shard, see {@link ConfigManager#reload()}.
+     *
+     * @param name the shard name
+     * @return the routes that changed
+     * @throws IllegalArgumentException if no such shard is loaded
+     */
+    public ReloadResult reload(String name) {
+        ConfigManager manager = managers.get(name);
+        if (manager == null) throw new IllegalArgumentException("Config shard \""+name+"\" is not loaded");
+        return manager.reload();
+    }
+
+    /**
+     * Reloads every loaded shard in parallel and waits for all of them.
+     */
+    public void reloadAll() {
+        CompletableFuture.allOf(managers.values().stream()
+                .map(manager -> CompletableFuture.runAsync(manager::reload, executor))
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Unloads a shard, its file is left untouched.
+     *
+     * @param name the shard name
+     * @return the config of the removed shard, or {@code null} if it was not loaded
+     */
+    public T remove(String name) {
+        managers.remove(name);
+        return configs.remove(name);
+    }
+
+    /**
+     * @return the config, or {@code null} if the shard failed, which is reported and leaves the other shards alone
+     */
+    private T load(String name, Path file) {
+        T config = RefUtils.fromClass(type).createInstance();
+        if (config == null) {
+            System.err.println("Couldn't create config for shard \""+name+"\", constructor failed | "+file);
+            return null;
+        }
+        ConfigManager manager;
+        try {
+            manager = new ConfigManager.Builder(file.getFileName().toString())
+                    .path(directory)
+                    .shard()
+                    .register(config)
+                    .build(loaded -> {}, errors -> {});
+        } catch (RuntimeException e) {
+            System.err.println("Couldn't load config shard \""+name+"\" | "+file);
+            return null;
+        }
+        if (!manager.isLoaded()) {
+            System.err.println("Couldn't load config shard \""+name+"\" | "+file);
+            return null;
+        }
+        managers.put(name, manager);
+        configs.put(name, config);
+        return config;
+    }
+
+    private void duplicate(String name) {
+        System.err.println("Config shard \""+name+"\" exists as .yml and .yaml, loading neither | "+directory);
+    }
+
+    private static String name(Path file) {
+        String fileName = file.getFileName().toString();
+        if (fileName.startsWith(".")) return null;
+        if (fileName.endsWith(".yml")) return fileName.substring(0, fileName.length() - 4);
+        if (fileName.endsWith(".yaml")) return fileName.substring(0, fileName.length() - 5);
+        return null;
+    }
+}
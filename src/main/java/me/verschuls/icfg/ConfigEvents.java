@@ -0,0 +1,102 @@
+package me.verschuls.icfg;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events emitted by {@link ConfigManager}, in the {@code IsekaiConfig} category.
+ *
+ * <p>Events are only filled and committed if {@link Event#shouldCommit()} holds, while JFR is not
+ * recording the manager pays for an empty event object per load and bound section. The events are
+ * enabled without threshold in every recording, e.g. {@code -XX:StartFlightRecording}, and can be
+ * turned off or given a threshold in a custom {@code .jfc} file.
+ */
+final class ConfigEvents {
+
+    private ConfigEvents() {}
+
+    /**
+     * Fields shared by {@link Load} and {@link Reload}, committed by {@link ConfigManager} once the load finished.
+     */
+    abstract static class Loading extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Configs")
+        @Description("Registered IConfig and snapshot classes")
+        String configs;
+
+        @Label("Fields Bound")
+        int fields;
+
+        @Label("Bytes Read")
+        @DataAmount
+        long bytesRead;
+
+        @Label("Bytes Written")
+        @DataAmount
+        long bytesWritten;
+
+        @Label("Errors")
+        int errors;
+    }
+
+    @Name("me.verschuls.icfg.ConfigLoad")
+    @Label("Config Load")
+    @Description("Initial load of a configuration file, from reading the file to the last bound field")
+    @Category("IsekaiConfig")
+    @StackTrace(false)
+    static final class Load extends Loading {}
+
+    @Name("me.verschuls.icfg.ConfigReload")
+    @Label("Config Reload")
+    @Description("Reload of a configuration file, from reading the file to the last rebound field")
+    @Category("IsekaiConfig")
+    @StackTrace(false)
+    static final class Reload extends Loading {
+        @Label("Changed Routes")
+        int changed;
+    }
+
+    @Name("me.verschuls.icfg.ConfigSave")
+    @Label("Config Save")
+    @Description("Serializing and atomically writing a configuration file")
+    @Category("IsekaiConfig")
+    @StackTrace(false)
+    static final class Save extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Written")
+        @Description("False if the file already held the same content")
+        boolean written;
+    }
+
+    @Name("me.verschuls.icfg.SectionInject")
+    @Label("Config Section Inject")
+    @Description("Binding the fields of one IConfig instance, nested configs are separate events")
+    @Category("IsekaiConfig")
+    @StackTrace(false)
+    static final class SectionInject extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Config")
+        Class<?> config;
+
+        @Label("Path")
+        String path;
+
+        @Label("Fields Bound")
+        int fields;
+    }
+}
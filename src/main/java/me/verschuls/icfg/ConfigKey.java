@@ -0,0 +1,236 @@
+package me.verschuls.icfg;
+
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+import dev.dejvokep.boostedyaml.route.Route;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Precompiled, typed handle to a single configuration value.
+ *
+ * <p>The route and the converter of a key are resolved once when the key is created, so
+ * reading it through {@link ConfigManager#get(ConfigKey)} neither splits the path nor
+ * looks up an accessor. Every key owns a global slot index, the manager caches the value
+ * read for a key in that slot until the next load or reload.
+ *
+ * <p>Keys are meant to be created once and kept in static final fields:
+ * <pre>{@code
+ * static final ConfigKey<String> HOST = ConfigKey.of("db.host", String.class);
+ * static final ConfigKey.IntKey POOL_SIZE = ConfigKey.ofInt("db.pool.size", 10);
+ *
+ * int size = manager.getInt(POOL_SIZE);
+ * }</pre>
+ *
+ * <p>Types registered through {@link ConfigManager#registerType} are supported, register
+ * them before creating keys of that type.
+ *
+ * @param <T> the value type
+ * @since 1.0
+ */
+public class ConfigKey<T> {
+
+    private static final AtomicInteger INDEX = new AtomicInteger();
+
+    private final int index;
+    private final String path;
+    private final Route route;
+    private final Class<T> type;
+    private final BiFunction<Section, Route, T> reader;
+
+    private ConfigKey(String path, Class<T> type) {
+        this.index = INDEX.getAndIncrement();
+        this.path = Objects.requireNonNull(path);
+        this.route = Route.fromString(path);
+        this.type = Objects.requireNonNull(type);
+        this.reader = ConfigUtils.routeAccessor(path, type);
+    }
+
+    /**
+     * Creates a key for the value at {@code path}.
+     *
+     * @param path the full path of the value, sections separated by dots
+     * @param type the value type
+     * @return the key
+     * @throws NullPointerException if path or type is null
+     */
+    public static <T> ConfigKey<T> of(String path, Class<T> type) {
+        return new ConfigKey<>(path, type);
+    }
+
+    /**
+     * Creates a key for an {@code int} value, read through {@link ConfigManager#getInt(IntKey)} without boxing.
+     *
+     * @param path the full path of the value
+     * @param def the value returned if the path is absent or not a number
+     * @return the key
+     */
+    public static IntKey ofInt(String path, int def) {
+        return new IntKey(path, def);
+    }
+
+    /**
+     * Creates a key for a {@code long} value, read through {@link ConfigManager#getLong(LongKey)} without boxing.
+     *
+     * @param path the full path of the value
+     * @param def the value returned if the path is absent or not a number
+     * @return the key
+     */
+    public static LongKey ofLong(String path, long def) {
+        return new LongKey(path, def);
+    }
+
+    /**
+     * Creates a key for a {@code double} value, read through {@link ConfigManager#getDouble(DoubleKey)} without boxing.
+     *
+     * @param path the full path of the value
+     * @param def the value returned if the path is absent or not a number
+     * @return the key
+     */
+    public static DoubleKey ofDouble(String path, double def) {
+        return new DoubleKey(path, def);
+    }
+
+    /**
+     * Creates a key for a {@code boolean} value, read through {@link ConfigManager#getBoolean(BooleanKey)} without boxing.
+     *
+     * @param path the full path of the value
+     * @param def the value returned if the path is absent or not a boolean
+     * @return the key
+     */
+    public static BooleanKey ofBoolean(String path, boolean def) {
+        return new BooleanKey(path, def);
+    }
+
+    static int count() {
+        return INDEX.get();
+    }
+
+    int index() {
+        return index;
+    }
+
+    Route route() {
+        return route;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * @param section the document, {@code null} if it never loaded
+     */
+    T read(Section section) {
+        return section == null ? null : reader.apply(section, route);
+    }
+
+    /**
+     * Reads the key through {@code cache}, overridden by the primitive keys to use their slot and default.
+     */
+    T cached(KeyCache cache, Section section) {
+        return cache.getObject(this, section);
+    }
+
+    @Override
+    public String toString() {
+        return "ConfigKey[" + path + ", " + type.getSimpleName() + "]";
+    }
+
+    /**
+     * Key of an {@code int} value, see {@link #ofInt(String, int)}.
+     */
+    public static final class IntKey extends ConfigKey<Integer> {
+
+        private final int def;
+
+        private IntKey(String path, int def) {
+            super(path, Integer.class);
+            this.def = def;
+        }
+
+        int readInt(Section section) {
+            Integer value = section == null ? null : section.getInt(route(), null);
+            return value == null ? def : value;
+        }
+
+        @Override
+        Integer cached(KeyCache cache, Section section) {
+            return cache.getInt(this, section);
+        }
+    }
+
+    /**
+     * Key of a {@code long} value, see {@link #ofLong(String, long)}.
+     */
+    public static final class LongKey extends ConfigKey<Long> {
+
+        private final long def;
+
+        private LongKey(String path, long def) {
+            super(path, Long.class);
+            this.def = def;
+        }
+
+        long readLong(Section section) {
+            Long value = section == null ? null : section.getLong(route(), null);
+            return value == null ? def : value;
+        }
+
+        @Override
+        Long cached(KeyCache cache, Section section) {
+            return cache.getLong(this, section);
+        }
+    }
+
+    /**
+     * Key of a {@code double} value, see {@link #ofDouble(String, double)}.
+     */
+    public static final class DoubleKey extends ConfigKey<Double> {
+
+        private final double def;
+
+        private DoubleKey(String path, double def) {
+            super(path, Double.class);
+            this.def = def;
+        }
+
+        double readDouble(Section section) {
+            Double value = section == null ? null : section.getDouble(route(), null);
+            return value == null ? def : value;
+        }
+
+        @Override
+        Double cached(KeyCache cache, Section section) {
+            return cache.getDouble(this, section);
+        }
+    }
+
+    /**
+     * Key of a {@code boolean} value, see {@link #ofBoolean(String, boolean)}.
+     */
+    public static final class BooleanKey extends ConfigKey<Boolean> {
+
+        private final boolean def;
+
+        private BooleanKey(String path, boolean def) {
+            super(path, Boolean.class);
+            this.def = def;
+        }
+
+        boolean readBoolean(Section section) {
+            Boolean value = section == null ? null : section.getBoolean(route(), null);
+            return value == null ? def : value;
+        }
+
+        @Override
+        Boolean cached(KeyCache cache, Section section) {
+            return cache.getBoolean(this, section);
+        }
+    }
+}
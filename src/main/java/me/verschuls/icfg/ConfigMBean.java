@@ -0,0 +1,156 @@
+package me.verschuls.icfg;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ConfigManagerMXBean} implementation, fed as a {@link ConfigMetrics} listener.
+ */
+final class ConfigMBean implements ConfigManagerMXBean, ConfigMetrics {
+
+    private static final ConfigMetrics.Sample NONE = new ConfigMetrics.Sample("", false, 0, 0, 0, 0, 0, 0, 0, 0, List.of());
+    /**
+     * MBeans registered by this class, by name. Guarded by the class.
+     */
+    private static final Map<ObjectName, ConfigMBean> REGISTERED = new HashMap<>();
+
+    private final String file;
+    private final WeakReference<Object> owner;
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong reloads = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong maxTotal = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+    private volatile ConfigMetrics.Sample last = NONE;
+
+    private ConfigMBean(String file, Object owner) {
+        this.file = file;
+        this.owner = new WeakReference<>(owner);
+    }
+
+    /**
+     * Registers the MBean of a manager, named after the absolute path of its file. MBeans of managers
+     * that were garbage collected are unregistered first, a name still in use by a live manager or
+     * registered by someone else is never taken, the MBean gets an {@code instance} key instead.
+     * A failed registration is reported and the returned listener still collects.
+     */
+    static ConfigMBean register(Object owner, Path file) {
+        String path = file.toAbsolutePath().normalize().toString();
+        ConfigMBean bean = new ConfigMBean(path, owner);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            synchronized (ConfigMBean.class) {
+                for (var iterator = REGISTERED.entrySet().iterator(); iterator.hasNext(); ) {
+                    var registered = iterator.next();
+                    if (registered.getValue().owner.get() != null) continue;
+                    iterator.remove();
+                    if (server.isRegistered(registered.getKey())) server.unregisterMBean(registered.getKey());
+                }
+                for (int instance = 1; ; instance++) {
+                    ObjectName name = new ObjectName("me.verschuls.icfg:type=ConfigManager,name=" + ObjectName.quote(path)
+                            + (instance == 1 ? "" : ",instance=" + instance));
+                    if (server.isRegistered(name)) continue;
+                    server.registerMBean(bean, name);
+                    REGISTERED.put(name, bean);
+                    break;
+                }
+            }
+        } catch (JMException e) {
+            System.err.println("Couldn't register config MBean | "+path);
+        }
+        return bean;
+    }
+
+    @Override
+    public void loaded(Sample sample) {
+        last = sample;
+        loads.incrementAndGet();
+        if (sample.reload()) reloads.incrementAndGet();
+        if (sample.failed()) failures.incrementAndGet();
+        maxTotal.accumulateAndGet(sample.totalNanos(), Math::max);
+        bytesRead.addAndGet(sample.bytesRead());
+        bytesWritten.addAndGet(sample.bytesWritten());
+    }
+
+    @Override
+    public String getFile() {
+        return file;
+    }
+
+    @Override
+    public long getLoadCount() {
+        return loads.get();
+    }
+
+    @Override
+    public long getReloadCount() {
+        return reloads.get();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public List<String> getLastErrors() {
+        return last.errors();
+    }
+
+    @Override
+    public long getLastReadNanos() {
+        return last.readNanos();
+    }
+
+    @Override
+    public long getLastParseNanos() {
+        return last.parseNanos();
+    }
+
+    @Override
+    public long getLastUpdateNanos() {
+        return last.updateNanos();
+    }
+
+    @Override
+    public long getLastInjectNanos() {
+        return last.injectNanos();
+    }
+
+    @Override
+    public long getLastSaveNanos() {
+        return last.saveNanos();
+    }
+
+    @Override
+    public long getLastTotalNanos() {
+        return last.totalNanos();
+    }
+
+    @Override
+    public long getMaxTotalNanos() {
+        return maxTotal.get();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    @Override
+    public long getBytesWritten() {
+        return bytesWritten.get();
+    }
+
+    @Override
+    public int getLastFieldsBound() {
+        return last.fieldsBound();
+    }
+}
@@ -1,8 +1,10 @@
 package me.verschuls.icfg;
 
 import dev.dejvokep.boostedyaml.YamlDocument;
+import dev.dejvokep.boostedyaml.block.Block;
 import dev.dejvokep.boostedyaml.block.implementation.Section;
 import dev.dejvokep.boostedyaml.dvs.versioning.BasicVersioning;
+import dev.dejvokep.boostedyaml.route.Route;
 import dev.dejvokep.boostedyaml.settings.Settings;
 import dev.dejvokep.boostedyaml.settings.dumper.DumperSettings;
 import dev.dejvokep.boostedyaml.settings.general.GeneralSettings;
@@ -11,16 +13,28 @@ import dev.dejvokep.boostedyaml.settings.updater.UpdaterSettings;
 import me.verschuls.icfg.annotations.ConfigInfo;
 import me.verschuls.icfg.annotations.IField;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class ConfigManager {
 
@@ -28,19 +42,49 @@ public class ConfigManager {
     private ConfigUtils utils;
     private final Consumer<ConfigManager> success;
     private final Consumer<List<String>> failed;
+    private final Executor executor;
+    private final Executor callbacks;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile List<String> errors = List.of();
 
     private final List<IConfig> configs;
+    private final List<Class<? extends IConfig>> snapshotTypes;
+    private final AtomicReference<Map<Class<?>, IConfig>> snapshots = new AtomicReference<>();
+    /**
+     * {@link Lazy} fields of the published snapshot, resolved before the document changes. Guarded by {@link #lock}.
+     */
+    private List<Lazy<?>> snapshotLazies = List.of();
+    private final KeyCache keys = new KeyCache();
     private final boolean resources;
     private boolean debug = false;
     private final Optional<String> version;
+    private final Version target;
+    private final List<Migration> migrations;
     private final boolean backups;
     private final String backupPrefix;
     private final int maxBackups;
+    private final Duration watch;
+    private final boolean mapped;
+    private final boolean parallel;
+    private final File file;
+    private ConfigCache cache;
+    private final ConfigBackups backupWriter;
+    /**
+     * Whether {@link #document} was restored from the {@link ConfigCache} and is not backed by the file yet.
+     */
+    private boolean detached = false;
+    private final Builder source;
+    private final List<ConfigMetrics> metrics;
+    private Measure measure = new Measure();
 
-    static final Set<Class<?>> ALLOWED_BASIC = new HashSet<>(Set.of(String.class, List.class, Integer.class, Double.class, Float.class, Boolean.class, Section.class));
-    static final Set<Class<?>> ALLOWED_IN_LIST = new HashSet<>(Set.of(String.class, Integer.class, Double.class, Float.class, Boolean.class));
+    static final Set<Class<?>> ALLOWED_BASIC = new HashSet<>(Set.of(String.class, List.class, Integer.class, Long.class, Double.class, Float.class, Boolean.class, Section.class,
+            int.class, long.class, double.class, float.class, boolean.class, int[].class, long[].class, double[].class));
+    static final Set<Class<?>> ALLOWED_IN_LIST = new HashSet<>(Set.of(String.class, Integer.class, Long.class, Double.class, Float.class, Boolean.class));
 
-    private final Map<IConfig, String> chaining = Collections.synchronizedMap(new HashMap<>());
+    /**
+     * Content hashes as of the last load, diffed on reload to find changed routes.
+     */
+    private RouteHashes routes = RouteHashes.EMPTY;
 
 
     private final String fileName;
@@ -48,16 +92,49 @@ public class ConfigManager {
     private ConfigManager(Builder builder) {
         this.fileName = builder.file;
         this.configs = builder.configs;
+        this.snapshotTypes = List.copyOf(builder.snapshotTypes);
         this.success = builder.success;
         this.failed = builder.failed;
+        this.executor = builder.executor;
+        this.callbacks = builder.callbacks;
         this.resources = builder.resources;
         this.debug = builder.debug;
         this.version = builder.version;
+        this.target = version.map(Version::of).orElse(null);
+        this.migrations = List.copyOf(builder.migrations);
         this.backups = builder.backups;
         this.backupPrefix = builder.backupPrefix;
         this.maxBackups = builder.maxBackups;
+        this.watch = builder.watch;
+        this.mapped = builder.mapped && FileUtils.REPLACE_MAPPED;
+        if (builder.mapped && !mapped && debug) System.out.println("Memory mapping disabled, mapped files can't be replaced on this platform | filename "+fileName);
+        this.parallel = builder.parallel;
+        this.file = builder.path == null ? new File(builder.file) : new File(builder.path.toFile(), builder.file);
+        this.source = builder;
+        this.backupWriter = backups && maxBackups != 0 ? new ConfigBackups(file.toPath(), backupPrefix, maxBackups,
+                builder.backupCompression, executor != null ? executor : Builder.DefaultExecutor.INSTANCE, debug) : null;
+        List<ConfigMetrics> metrics = new ArrayList<>(builder.metrics);
+        if (builder.jmx) metrics.add(ConfigMBean.register(this, file.toPath()));
+        this.metrics = List.copyOf(metrics);
+        measure.event = new ConfigEvents.Load();
+        measure.event.begin();
         try {
-            this.document = loadConfig(builder);
+            if (builder.cache) {
+                List<Class<?>> types = new ArrayList<>(snapshotTypes);
+                configs.stream().filter(Objects::nonNull).forEach(config -> types.add(config.getClass()));
+                this.cache = new ConfigCache(file.toPath(), builder.defaults(), ConfigCache.schema(types, version.orElse(null)));
+                long start = System.nanoTime();
+                Map<Object, Object> tree = cache.read();
+                measure.read += System.nanoTime() - start;
+                if (tree != null) {
+                    start = System.nanoTime();
+                    this.document = cachedDoc(builder, tree);
+                    measure.parse += System.nanoTime() - start;
+                    this.detached = true;
+                    if (debug) System.out.println("Loaded from cache | filename "+fileName);
+                }
+            }
+            if (document == null) this.document = loadConfig(builder, measure);
             this.utils = ConfigUtils.of(document);
             if (debug) System.out.println("Configs: "+configs.stream().filter(Objects::nonNull).map(icfg->icfg.getClass().getName()).toList() + " | fileName: "+fileName);
             if (version.isPresent()) {
@@ -71,134 +148,845 @@ public class ConfigManager {
             }
             inject(false);
         } catch (Exception e) {
+            // the cause is all there is to report if the file never loaded
+            this.errors = List.of(String.valueOf(e));
             if (debug) e.printStackTrace(System.console().writer());
+        } finally {
+            if (watch != null && document != null) {
+                try {
+                    ConfigWatcher.get().watch(file.toPath(), this, watch);
+                } catch (IOException e) {
+                    System.err.println("Couldn't watch config | "+fileName);
+                    if (debug) e.printStackTrace(System.console().writer());
+                }
+            }
         }
 
     }
 
-    public void reload() {
-        inject(true);
+    /**
+     * Returns the current snapshot of a config class registered through
+     * {@link Builder#snapshot(Class, Class[])}.
+     *
+     * <p>Every load builds a complete new object graph for the snapshot classes and publishes
+     * all of them at once with a single atomic swap, readers never see a half-injected graph.
+     * If a reload reports errors for the new graph the previous snapshot stays published.
+     * The read is wait-free and can be done from any thread.
+     *
+     * @param type the registered snapshot class
+     * @return the current instance, never modified after publication
+     * @throws IllegalArgumentException if the class is not registered as snapshot
+     * @since 1.0
+     */
+    public <T extends IConfig> T current(Class<T> type) {
+        Map<Class<?>, IConfig> current = snapshots.get();
+        IConfig config = current == null ? null : current.get(type);
+        if (config == null && !snapshotTypes.contains(type))
+            throw new IllegalArgumentException("Class \""+type.getName()+"\" is not registered as snapshot");
+        return type.cast(config);
+    }
+
+    /**
+     * Reads the value of a {@link ConfigKey}.
+     *
+     * <p>The value is read from the document on the first access after a load or reload
+     * and served from the manager's per-key slot afterwards. Every reload drops all cached values.
+     *
+     * @param key the key
+     * @return the value as read by the accessor of the key type, absent values resolve to the
+     *         document defaults ({@code null}, or {@code 0} for numbers). Keys created through
+     *         {@link ConfigKey#ofInt} and the other primitive factories return the same value as
+     *         their primitive getter, their default included. If the file never loaded every key
+     *         reads its default
+     * @since 1.0
+     */
+    public <T> T get(ConfigKey<T> key) {
+        return keys.get(key, document);
+    }
+
+    /**
+     * Reads an {@code int} value without boxing, see {@link #get(ConfigKey)}.
+     *
+     * @param key the key
+     * @return the value, or the key default if the path is absent
+     */
+    public int getInt(ConfigKey.IntKey key) {
+        return keys.getInt(key, document);
+    }
+
+    /**
+     * Reads a {@code long} value without boxing, see {@link #get(ConfigKey)}.
+     *
+     * @param key the key
+     * @return the value, or the key default if the path is absent
+     */
+    public long getLong(ConfigKey.LongKey key) {
+        return keys.getLong(key, document);
+    }
+
+    /**
+     * Reads a {@code double} value without boxing, see {@link #get(ConfigKey)}.
+     *
+     * @param key the key
+     * @return the value, or the key default if the path is absent
+     */
+    public double getDouble(ConfigKey.DoubleKey key) {
+        return keys.getDouble(key, document);
+    }
+
+    /**
+     * Reads a {@code boolean} value without boxing, see {@link #get(ConfigKey)}.
+     *
+     * @param key the key
+     * @return the value, or the key default if the path is absent
+     */
+    public boolean getBoolean(ConfigKey.BooleanKey key) {
+        return keys.getBoolean(key, document);
+    }
+
+    boolean isLoaded() {
+        return document != null;
+    }
+
+    boolean isDebug() {
+        return debug;
+    }
+
+    List<String> getErrors() {
+        return errors;
     }
 
-    private void inject(boolean reload) {
+    /**
+     * Stops watching the configuration file for changes.
+     * Has no effect if the manager was not built with {@link Builder#watch(Duration)}.
+     */
+    public void unwatch() {
+        if (watch == null) return;
+        try {
+            ConfigWatcher.get().unwatch(this);
+        } catch (IOException ignored) {}
+    }
+
+    /**
+     * Reloads the configuration file and re-injects the registered configs.
+     *
+     * <p>Only fields and nested {@link IConfig}s whose routes changed since the last load are
+     * rebound, unchanged values and nested instances are left untouched.
+     *
+     * <p>If the file can't be read or parsed the previously loaded content stays in place,
+     * nothing is rebound or saved and the failed callback receives the cause.
+     *
+     * @return the routes that changed, empty if the file content is unchanged or the reload failed
+     */
+    public ReloadResult reload() {
+        return inject(true);
+    }
+
+    /**
+     * Reloads the configuration file off the calling thread.
+     *
+     * <p>The reload runs on the executor the manager was built with through
+     * {@link Builder#buildAsync(Executor, Consumer, Consumer)}, or on a shared
+     * virtual-thread-per-task executor otherwise. Reloads of the same manager never
+     * run concurrently.
+     *
+     * @return a future completed with the result of {@link #reload()}
+     * @since 1.0
+     */
+    public CompletableFuture<ReloadResult> reloadAsync() {
+        return CompletableFuture.supplyAsync(this::reload, executor != null ? executor : Builder.DefaultExecutor.INSTANCE);
+    }
+
+    private ReloadResult inject(boolean reload) {
+        lock.lock();
+        try {
+            if (reload) {
+                measure.event = new ConfigEvents.Reload();
+                measure.event.begin();
+            }
+            return injectLocked(reload);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReloadResult injectLocked(boolean reload) {
+        pinSnapshot();
+        Set<String> changes = null;
+        List<String> changed = List.of();
+        if (reload) {
+            Exception failure = null;
+            if (detached) {
+                try {
+                    materialize();
+                } catch (Exception e) {
+                    failure = e;
+                }
+            } else {
+                try {
+                    parse();
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                }
+            }
+            if (failure != null) {
+                // nothing is updated, bound or saved from a file that didn't parse
+                System.err.println("Error occurred while reloading config | "+fileName);
+                if (debug) failure.printStackTrace(System.console().writer());
+                List<String> errors = List.of(String.valueOf(failure));
+                this.errors = errors;
+                publish(true, errors, changed);
+                callbacks.execute(() -> failed.accept(errors));
+                return new ReloadResult(changed);
+            }
+        }
+        long start = System.nanoTime();
+        boolean update = !detached && updateDue();
+        // hashed only if the updater runs, it is the only step here that can change the document
+        long loaded = update ? RouteHashes.hash(document) : 0;
+        try {
+            if (update) update();
+        } catch (IOException e) {
+            if (debug) e.printStackTrace(System.console().writer());
+        }
+        measure.update += System.nanoTime() - start;
+        RouteHashes current = RouteHashes.of(document);
+        boolean updated = update && current.hash() != loaded;
         if (reload) {
+            Set<String> diff = new HashSet<>();
+            RouteHashes.diff(routes, current, null, diff);
+            changed = diff.stream().filter(route -> !hasAncestor(route, diff)).sorted().toList();
+            changes = new HashSet<>(diff);
+            for (String route : diff)
+                for (int i = route.lastIndexOf('.'); i > 0; i = route.lastIndexOf('.', i - 1))
+                    changes.add(route.substring(0, i));
+            Set<String> affected = changes;
+            utils.retainErrors(path -> !affected.contains(path));
+            if (debug) System.out.println("Changed routes: "+changed+" | filename "+fileName);
+        } else utils.clearErrors();
+
+        start = System.nanoTime();
+        List<IConfig> injected = new ArrayList<>();
+        bind(configs, changes, injected, null);
+        List<String> snapshotErrors = List.of();
+        if (!snapshotTypes.isEmpty()) {
+            int mark = utils.errorCount();
+            Map<Class<?>, IConfig> fresh = new HashMap<>();
+            for (Class<? extends IConfig> type : snapshotTypes) {
+                IConfig instance = RefUtils.fromClass(type).createInstance();
+                if (instance == null) utils.reportError(type.getName());
+                else fresh.put(type, instance);
+            }
+            List<IConfig> snapshotInjected = new ArrayList<>();
+            List<Lazy<?>> lazies = new ArrayList<>();
+            bind(fresh.values(), null, snapshotInjected, lazies);
+            // before publication, readers only ever see snapshots with derived state in place
+            onInject(snapshotInjected);
+            snapshotErrors = utils.cutErrors(mark);
+            if (snapshotErrors.isEmpty() || snapshots.get() == null) {
+                snapshots.set(Map.copyOf(fresh));
+                snapshotLazies = lazies;
+            }
+            else if (debug) System.out.println("Snapshot kept, new one has errors: "+snapshotErrors+" | filename "+fileName);
+        }
+        measure.inject += System.nanoTime() - start;
+        boolean dirty = utils.takeDirty();
+        if (detached && dirty) {
+            // injection wrote values the cached tree lacks, redo the load on the real document
+            if (debug) System.out.println("Cache outdated by injection, loading file | filename "+fileName);
+            try {
+                materialize();
+                return injectLocked(false);
+            } catch (Exception e) {
+                System.err.println("Error occurred while loading config | "+fileName);
+                if (debug) e.printStackTrace(System.console().writer());
+            }
+        }
+        if (dirty || updated) {
+            if (debug) System.out.println("Saving, updater changed: "+updated+" defaults written: "+dirty+" | filename "+fileName);
+            start = System.nanoTime();
             try {
-                document.reload();
+                save();
             } catch (IOException e) {
-                System.err.println("Error occurred while reloading config | "+fileName);
+                System.err.println("Error occurred while saving config | "+fileName);
                 if (debug) e.printStackTrace(System.console().writer());
             }
+            measure.save += System.nanoTime() - start;
+        }
+        if (cache != null && !detached) cache.write(document);
+        routes = dirty ? RouteHashes.of(document) : current;
+        keys.invalidate();
+        onInject(injected);
+        if (watch != null) {
+            try {
+                ConfigWatcher.get().refresh(this);
+            } catch (IOException ignored) {}
         }
 
-        ConcurrentLinkedQueue<IConfig> configQueue = new ConcurrentLinkedQueue<>(configs);
-        
-        while (!configQueue.isEmpty()) {
-            IConfig icfg = configQueue.poll();
-            if (debug) System.out.println("----------------------------------------------------"+fileName);
-            if (debug) System.out.println("All IConfig's: "+configs + " | filename "+fileName);
+        Set<String> combined = new LinkedHashSet<>(utils.getErrors());
+        combined.addAll(snapshotErrors);
+        List<String> errors = List.copyOf(combined);
+        this.errors = errors;
+        publish(reload, errors, changed);
+        if (!errors.isEmpty()) {
+            callbacks.execute(() -> failed.accept(errors));
+        } else callbacks.execute(() -> success.accept(this));
+        return new ReloadResult(changed);
+    }
+
+    /**
+     * Commits the {@link ConfigEvents} of the finished load, hands its measurements to the
+     * {@link ConfigMetrics} listeners and starts a new measurement.
+     */
+    private void publish(boolean reload, List<String> errors, List<String> changed) {
+        Measure measure = this.measure;
+        this.measure = new Measure();
+        ConfigEvents.Loading event = measure.event;
+        if (event != null && event.shouldCommit()) {
+            event.file = fileName;
+            event.configs = configNames();
+            event.fields = measure.fields;
+            event.bytesRead = measure.bytesRead;
+            event.bytesWritten = measure.bytesWritten;
+            event.errors = errors.size();
+            if (event instanceof ConfigEvents.Reload reloadEvent) reloadEvent.changed = changed.size();
+            event.commit();
+        }
+        if (metrics.isEmpty()) return;
+        ConfigMetrics.Sample sample = new ConfigMetrics.Sample(fileName, reload,
+                measure.read, measure.parse, measure.update, measure.inject, measure.save,
+                measure.bytesRead, measure.bytesWritten, measure.fields, errors);
+        for (ConfigMetrics listener : metrics) {
+            try {
+                listener.loaded(sample);
+            } catch (RuntimeException e) {
+                System.err.println("Error occurred in config metrics listener | "+fileName);
+                if (debug) e.printStackTrace(System.console().writer());
+            }
+        }
+    }
+
+    private String configNames() {
+        StringJoiner names = new StringJoiner(", ");
+        for (IConfig config : configs)
+            if (config != null) names.add(config.getClass().getName());
+        for (Class<? extends IConfig> type : snapshotTypes) names.add(type.getName());
+        return names.toString();
+    }
+
+    /**
+     * Whether {@link #update()} has to run: there are defaults or migrations, and with a configured
+     * version the file is not at that version.
+     */
+    private boolean updateDue() {
+        if (document.getDefaults() == null && migrations.isEmpty()) return false;
+        if (target == null) return true;
+        Version current = Version.parse(document.getString("version"));
+        if (!target.equals(current)) return true;
+        if (debug) System.out.println("Update skipped, file at version "+current+" | filename "+fileName);
+        return false;
+    }
+
+    /**
+     * Merges the defaults into the document, an older versioned file is first taken through the
+     * registered {@link ConfigMigration}s. Only called if {@link #updateDue()}.
+     *
+     * <p>The file version is only raised after the merge, the updater skips the merge for a
+     * document already at the version of the defaults.
+     */
+    private void update() throws IOException {
+        if (target == null) {
+            document.update();
+            return;
+        }
+        Version current = Version.parse(document.getString("version"));
+        if (current != null && current.compareTo(target) < 0 && !migrate(current)) return;
+        document.update();
+        // the updater writes the version as string, keep the form of the defaults
+        Object reached = document.getDefaults() == null ? null : document.getDefaults().get("version");
+        document.set("version", reached != null ? reached : versionValue(version.get()));
+    }
+
+    /**
+     * @return {@code version} stored like the version of the defaults, or of the file without defaults,
+     *         as number if that one is a number
+     */
+    private Object versionValue(String version) {
+        Section form = document.getDefaults() != null ? document.getDefaults() : document;
+        if (!(form.get("version") instanceof Number)) return version;
+        try {
+            return Integer.valueOf(version);
+        } catch (NumberFormatException e) {
+            try {
+                return Double.valueOf(version);
+            } catch (NumberFormatException ignored) {
+                return version;
+            }
+        }
+    }
+
+    /**
+     * Runs the migrations from {@code from} towards {@link #target}: each hop takes the step starting
+     * at the reached version, the longest one if several start there. A failed step is undone.
+     *
+     * @return {@code false} if a step failed or no step starts at a reached version while later steps exist,
+     *         the document is then set to the last reached version, otherwise its version is left as it was
+     */
+    private boolean migrate(Version from) throws IOException {
+        Version at = from;
+        while (true) {
+            Migration next = null;
+            boolean ahead = false;
+            for (Migration migration : migrations) {
+                if (migration.to.compareTo(target) > 0) continue;
+                if (!migration.from.equals(at)) {
+                    if (migration.from.compareTo(at) > 0) ahead = true;
+                    continue;
+                }
+                if (next == null || migration.to.compareTo(next.to) > 0) next = migration;
+            }
+            if (next == null) {
+                if (!ahead) return true;
+                System.err.println("Missing config migration from version "+at+" | "+fileName);
+                if (!at.equals(from)) document.set("version", versionValue(at.toString()));
+                return false;
+            }
+            if (debug) System.out.println("Migrating "+next.from+" -> "+next.to+" | filename "+fileName);
+            String before = document.dump();
+            try {
+                next.step.migrate(document);
+            } catch (RuntimeException e) {
+                System.err.println("Error occurred while migrating config from "+next.from+" to "+next.to+" | "+fileName);
+                if (debug) e.printStackTrace(System.console().writer());
+                document.reload(new ByteArrayInputStream(before.getBytes(StandardCharsets.UTF_8)));
+                if (!at.equals(from)) document.set("version", versionValue(at.toString()));
+                return false;
+            }
+            at = next.to;
+        }
+    }
+
+    private record Migration(Version from, Version to, ConfigMigration step) {}
+
+    /**
+     * Parses the file into the document. The document clears itself before parsing,
+     * if the file can't be read or parsed its previous content is put back.
+     */
+    private void parse() throws IOException {
+        Map<Object, Block<?>> loaded = new LinkedHashMap<>(document.getStoredValue());
+        try (InputStream in = open(file, mapped, measure)) {
+            long start = System.nanoTime();
+            document.reload(in);
+            measure.parse += System.nanoTime() - start;
+        } catch (IOException | RuntimeException e) {
+            document.getStoredValue().clear();
+            document.getStoredValue().putAll(loaded);
+            throw e;
+        }
+    }
+
+    /**
+     * Replaces the document restored from the cache by the parsed and merged file.
+     */
+    private void materialize() throws Exception {
+        List<String> errors = utils.getErrors();
+        document = loadConfig(source, measure);
+        utils = ConfigUtils.of(document);
+        utils.addErrors(errors);
+        detached = false;
+    }
+
+    /**
+     * Serializes the document in memory and replaces the file atomically,
+     * skipped if the file already holds the same content.
+     */
+    private void save() throws IOException {
+        ConfigEvents.Save event = new ConfigEvents.Save();
+        event.begin();
+        byte[] content = document.dump().getBytes(StandardCharsets.UTF_8);
+        boolean written = FileUtils.writeAtomic(file.toPath(), content);
+        if (written) measure.bytesWritten += content.length;
+        // the content read by this load is what the save just replaced
+        if (written && backupWriter != null && measure.content != null) backupWriter.backup(measure.content);
+        if (event.shouldCommit()) {
+            event.file = fileName;
+            event.bytes = content.length;
+            event.written = written;
+            event.commit();
+        }
+        if (debug) System.out.println((written ? "Saved" : "Save skipped, content unchanged")+" | filename "+fileName);
+    }
+
+    /**
+     * Binds {@code roots} and their nested configs, every config after the config holding it.
+     *
+     * <p>Each config is a {@link Binding} task. With {@link Builder#parallelInjection(boolean)} the nested
+     * configs of a config, and the roots, are bound in parallel on the common {@link ForkJoinPool}.
+     * Errors and document writes are collected per task and joined in declaration order,
+     * so both are the same with and without parallel injection.
+     *
+     * @param injected receives every bound instance with an {@link me.verschuls.icfg.annotations.OnInject OnInject}
+     *                 method that had at least one field bound and no errors, nested configs before their parents
+     * @param lazies receives every bound {@link Lazy}, can be {@code null}
+     */
+    private void bind(Collection<? extends IConfig> roots, Set<String> changes, List<IConfig> injected, List<Lazy<?>> lazies) {
+        if (debug) System.out.println("All IConfig's: "+roots + " | filename "+fileName);
+        Binding root = new Binding(null, null, changes);
+        for (IConfig icfg : roots) {
             if (icfg == null) {
-                if (debug) System.out.println("IConfig 'null' Configs: "+configs + " | filename "+fileName);
-                if (debug) System.out.println("----------------------------------------------------"+fileName);
+                if (debug) System.out.println("IConfig 'null' Configs: "+roots + " | filename "+fileName);
                 continue;
             }
-            if (debug) System.out.println("IConfig : "+icfg.getClass().getName() + " | filename "+fileName);
-            AtomicReference<String> section = new AtomicReference();
-            RefClass obj = RefUtils.get(icfg);
-            if (chaining.containsKey(icfg)) {
-                section.getAndSet(chaining.get(icfg));
-                if (debug) System.out.println("ICFG is chanined with path: "+section.get());
+            root.children.add(new Binding(icfg, null, changes));
+        }
+        if (parallel) ForkJoinPool.commonPool().invoke(root);
+        else root.compute();
+        utils.join(root.utils);
+        measure.fields += root.fields;
+        injected.addAll(root.injected);
+        if (lazies != null) lazies.addAll(root.lazies);
+    }
+
+    /**
+     * Binds one config, then its nested configs, see {@link #bind}. Owns its {@link ConfigUtils#fork() fork}
+     * of the utils, its field count and its {@link me.verschuls.icfg.annotations.OnInject OnInject}
+     * instances, the results of the nested configs are joined into them once they are done.
+     * The path of a nested config lives only in its task, nothing is kept per instance across reloads.
+     */
+    @SuppressWarnings("serial") // never serialized
+    private final class Binding extends RecursiveAction {
+
+        private final IConfig config;
+        /**
+         * Path of a nested config within its parent, {@code null} for registered configs.
+         */
+        private final String chained;
+        private final Set<String> changes;
+        private final ConfigUtils utils = ConfigManager.this.utils.fork();
+        private final List<Binding> children = new ArrayList<>();
+        private final List<IConfig> injected = new ArrayList<>();
+        private final List<Lazy<?>> lazies = new ArrayList<>();
+        private int fields;
+        /**
+         * Whether the {@link me.verschuls.icfg.annotations.OnInject OnInject} method of {@link #config} is due.
+         */
+        private boolean due;
+
+        private Binding(IConfig config, String chained, Set<String> changes) {
+            this.config = config;
+            this.chained = chained;
+            this.changes = changes;
+        }
+
+        @Override
+        protected void compute() {
+            if (config != null) bindConfig();
+            if (parallel && children.size() > 1) invokeAll(children);
+            else for (Binding child : children) child.compute();
+            for (Binding child : children) {
+                utils.join(child.utils);
+                fields += child.fields;
+                injected.addAll(child.injected);
+                lazies.addAll(child.lazies);
             }
-            if (obj.isAnnotated(ConfigInfo.class)) {
-                ConfigInfo info = (ConfigInfo) obj.getAnnotation(ConfigInfo.class);
-                if (info.name() != null && section.get() == null)
-                    section.getAndSet(info.name()+".");
+            if (due) injected.add(config);
+        }
 
-                if (debug) System.out.println("ICFG is annotated with path: "+section.get());
-                if (info.required()) {
+        private void bindConfig() {
+            IConfig icfg = config;
+            if (debug) System.out.println("----------------------------------------------------"+fileName);
+            if (debug) System.out.println("IConfig : "+icfg.getClass().getName() + " | filename "+fileName);
+            String section = chained;
+            RefClass<?> obj = RefUtils.get(icfg);
+            if (section != null && debug) System.out.println("ICFG is chanined with path: "+section);
+            ConfigInfo info = obj.getInfo();
+            if (info != null) {
+                if (section == null)
+                    section = obj.getSection();
+
+                if (debug) System.out.println("ICFG is annotated with path: "+section);
+                if (info.required() && (changes == null || changes.contains(info.name()))) {
                     if (utils.getSection(info.name()) == null) {
                         utils.reportError(info.name());
-                        if (debug) System.out.println("ICFG null section | path: "+section.get());
+                        if (debug) System.out.println("ICFG null section | path: "+section);
                         if (debug) System.out.println("----------------------------------------------------"+fileName);
-                        continue;
+                        return;
                     }
                     if (utils.getSection(info.name()).isEmpty(true)) {
-                        if (debug) System.out.println("ICFG empty section | path: "+section.get());
+                        if (debug) System.out.println("ICFG empty section | path: "+section);
                         if (debug) System.out.println("----------------------------------------------------"+fileName);
                         utils.reportError(info.name());
-                        continue;
+                        return;
                     }
                 }
-                injectFields(section.get(), info.allFields() ? obj.getFields() : obj.getAnnotatedFields(), configQueue);
-                continue;
             }
-            if (debug) System.out.println("ICFG field injecting | path: "+section.get());
-            injectFields(section.get(), obj.getAnnotatedFields(), configQueue);
+            ConfigEvents.SectionInject event = new ConfigEvents.SectionInject();
+            event.begin();
+            Binder<IConfig> binder = RefUtils.binder((Class<IConfig>) icfg.getClass());
+            if (binder != null) {
+                if (debug) System.out.println("ICFG generated binder | path: "+section);
+                binder.bind(icfg, new BindContext(this, section));
+            } else {
+                if (debug) System.out.println("ICFG field injecting | path: "+section);
+                injectFields(this, icfg, section, obj.getBoundFields());
+            }
+            commit(event, icfg, section, fields);
+            due = obj.hasOnInject() && fields > 0 && !utils.hasErrors();
             if (debug) System.out.println("----------------------------------------------------"+fileName);
         }
-        try {
-            document.update();
-            document.save();
-        } catch (IOException e) {
-            if (debug) e.printStackTrace(System.console().writer());
+    }
+
+    /**
+     * Runs the {@link me.verschuls.icfg.annotations.OnInject OnInject} methods of the instances bound by
+     * {@link #bind}, nested configs before the configs holding them.
+     * An instance reached twice is notified once. A throwing method is reported as error of its class.
+     */
+    private void onInject(List<IConfig> injected) {
+        Set<IConfig> notified = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (IConfig icfg : injected) {
+            if (!notified.add(icfg)) continue;
+            if (debug) System.out.println("Calling @OnInject: "+icfg.getClass().getName()+" | filename "+fileName);
+            try {
+                RefUtils.get(icfg).onInject(icfg);
+            } catch (Throwable e) {
+                System.err.println("Error occurred in @OnInject method of \""+icfg.getClass().getName()+"\" | "+fileName);
+                if (debug) e.printStackTrace(System.console().writer());
+                utils.reportError(icfg.getClass().getName());
+            }
         }
+    }
+
+    private void commit(ConfigEvents.SectionInject event, IConfig config, String section, int fields) {
+        if (!event.shouldCommit()) return;
+        event.file = fileName;
+        event.config = config.getClass();
+        event.path = section;
+        event.fields = fields;
+        event.commit();
+    }
 
-        if (utils.hasErrors()) failed.accept(utils.getErrors());
-        else success.accept(this);
+    private static boolean hasAncestor(String route, Set<String> routes) {
+        for (int i = route.lastIndexOf('.'); i > 0; i = route.lastIndexOf('.', i - 1))
+            if (routes.contains(route.substring(0, i))) return true;
+        return false;
     }
 
-    private synchronized void injectFields(String section, List<RefField> fields, ConcurrentLinkedQueue queue) {
+    private void injectFields(Binding binding, IConfig instance, String section, List<RefField> fields) {
+        ConfigUtils utils = binding.utils;
+        Set<String> changes = binding.changes;
         if (debug) System.out.println("Injecting Fields Section: "+section);
         for (RefField field : fields) {
+            String path = section == null ? field.getPath() : section + field.getPath();
+            if (changes != null && !changes.contains(path)) continue;
             if (debug) System.out.println("----------------------------------------------------"+fileName);
             if (debug) System.out.println("Field: "+field.getName()+" Type: "+field.getType());
-            StringBuilder path = new StringBuilder();
-            if (section != null) path.append(section);
-            boolean required = false;
-            if (field.isAnnotated()) {
-                IField info = field.getAnnotation();
-                required = info.required();
-                path.append(info.path().isEmpty() ? field.getName() : info.path());
-            } else path.append(field.getName());
-            if (ALLOWED_BASIC.contains(field.getType()))  {
-                if (debug) System.out.println("Setting Basic: "+path);
-                utils.configure(path.toString(), field, resources, required);
-                if (debug) System.out.println("----------------------------------------------------"+fileName);
-                continue;
-            }
-            RefClass class_ = RefUtils.fromClass(field.getType());
-            if (class_.isAssignableFrom(IConfig.class)) {
-                if (debug) System.out.println("Found IConfig Field: "+path);
-                Object instance = class_.createInstance();
-                if (!(instance instanceof IConfig iConfig)) continue;
-                if (debug) System.out.println("Indeed IConfig Field as instanceof");
-                path.append(".");
-                if (class_.isAnnotated(ConfigInfo.class)) {
-                    ConfigInfo info = (ConfigInfo) class_.getAnnotation(ConfigInfo.class);
-                    if (!info.name().isEmpty()) path.append(info.name()).append(".");
-                    chaining.put(iConfig, path.toString());
-                } else chaining.put(iConfig, path.toString());
-                if (debug) System.out.println("Adding to pending: " + queue.size());
-                queue.add(iConfig);
-                field.set(iConfig);
-                if (debug) System.out.println("IConfig Field set: "+instance.getClass() + " Path: "+path + ". Added to pending: " + queue.size());
-                if (debug) System.out.println("----------------------------------------------------"+fileName);
-                continue;
+            switch (field.getKind()) {
+                case BASIC -> {
+                    if (debug) System.out.println("Setting Basic: "+path);
+                    utils.configure(path, field, instance, resources, field.isRequired());
+                }
+                case CONFIG -> {
+                    if (debug) System.out.println("Found IConfig Field: "+path);
+                    RefClass<?> class_ = field.getTypePlan();
+                    Object current = changes == null ? null : field.get(instance);
+                    if (!((current != null ? current : class_.createInstance()) instanceof IConfig iConfig)) continue;
+                    String nested = class_.getSection() == null ? path + "." : path + "." + class_.getSection();
+                    binding.children.add(new Binding(iConfig, nested, changes));
+                    field.set(instance, iConfig);
+                    if (debug) System.out.println("IConfig Field set: "+iConfig.getClass() + " Path: "+nested + ". Added to pending: " + binding.children.size());
+                }
+                case LAZY -> {
+                    Lazy<Object> lazy = (Lazy<Object>) field.get(instance);
+                    if (lazy == null) field.set(instance, lazy = new Lazy<>());
+                    bindLazy(binding, lazy, path, field.getLazyType(), field.isRequired());
+                }
+                case CUSTOM -> {
+                    RefClass<?> class_ = field.getTypePlan();
+                    if (!class_.hasConstructor()) continue;
+                    if (!class_.hasArguments()) continue;
+                    if (class_.getArgTypes().length != 1) continue;
+
+                    Object value;
+                    Class<?> argType = class_.getArgTypes()[0];
+                    if (argType.equals(Section.class))
+                        value = class_.createInstance(utils.getSection(path));
+                    else value = class_.createInstance(utils.getValue(path, argType));
+                    if (value != null) field.set(instance, value);
+                    else utils.reportError(path);
+                }
             }
-            if (!class_.hasConstructor()) continue;
-            if (!class_.hasArguments()) continue;
-            if (class_.getArgTypes().length != 1) continue;
-
-            Object value;
-            Class<?> argType = class_.getArgTypes()[0];
-            if (argType.equals(Section.class))
-                value = class_.createInstance(utils.getSection(path.toString()));
-            else value = class_.createInstance(utils.getValue(path.toString(), argType));
-            if (value != null) field.set(value);
-            else utils.reportError(path.toString());
+            binding.fields++;
             if (debug) System.out.println("----------------------------------------------------"+fileName);
         }
     }
 
+    /**
+     * Points a {@link Lazy} at its path and drops its resolved value. Reloads only get here
+     * if something below the path changed, otherwise the resolved value is kept.
+     *
+     * @param binding the binding task, errors are reported to its utils
+     */
+    private void bindLazy(Binding binding, Lazy<Object> lazy, String path, Class<?> type, boolean required) {
+        if (required && binding.utils.isEmpty(path)) binding.utils.reportError(path);
+        binding.lazies.add(lazy);
+        lazy.reset(() -> resolveLazy(path, type));
+    }
+
+    /**
+     * Resolves a {@link Lazy} value under the lock, so it never sees a document in the middle of a reload.
+     */
+    private Object resolveLazy(String path, Class<?> type) {
+        lock.lock();
+        try {
+            return utils.resolveLazy(path, type);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Resolves the pending {@link Lazy} fields of the published snapshot while the document still holds
+     * the content the snapshot was built from. Called under the lock before the document changes.
+     */
+    private void pinSnapshot() {
+        for (Lazy<?> lazy : snapshotLazies) lazy.get();
+        snapshotLazies = List.of();
+    }
+
+    /**
+     * {@link Binder.Context} handed to generated binders, mirrors {@link #injectFields}.
+     */
+    private class BindContext implements Binder.Context {
+
+        private final Binding binding;
+        private final ConfigUtils utils;
+        private final String section;
+        private final Set<String> changes;
+
+        private BindContext(Binding binding, String section) {
+            this.binding = binding;
+            this.utils = binding.utils;
+            this.section = section;
+            this.changes = binding.changes;
+        }
+
+        private String path(String path) {
+            return section == null ? path : section + path;
+        }
+
+        @Override
+        public boolean changed(String path) {
+            return changes == null || changes.contains(path(path));
+        }
+
+        @Override
+        public <V> V value(String path, Class<V> type, V current, boolean required) {
+            if (!changed(path)) return current;
+            // a custom type the processor couldn't construct, reflection leaves it alone without an accessor
+            if (!RefField.isBasic(type)) return current;
+            binding.fields++;
+            return utils.resolve(path(path), type, current, resources, required);
+        }
+
+        @Override
+        public <V> V argument(String path, Class<V> type) {
+            binding.fields++;
+            if (type.equals(Section.class)) return (V) utils.getSection(path(path));
+            return utils.getValue(path(path), type);
+        }
+
+        @Override
+        public <V extends IConfig> V nested(String path, V current, Supplier<V> factory, String section) {
+            if (!changed(path)) return current;
+            binding.fields++;
+            V config = changes == null || current == null ? factory.get() : current;
+            String nested = section.isEmpty() ? path(path) + "." : path(path) + "." + section + ".";
+            binding.children.add(new Binding(config, nested, changes));
+            return config;
+        }
+
+        @Override
+        public <V> Lazy<V> lazy(String path, Lazy<V> current, Class<?> type, boolean required) {
+            if (!changed(path)) return current;
+            binding.fields++;
+            Lazy<V> lazy = current != null ? current : new Lazy<>();
+            bindLazy(binding, (Lazy<Object>) lazy, path(path), type, required);
+            return lazy;
+        }
+
+        @Override
+        public void error(String path) {
+            utils.reportError(path(path));
+        }
+    }
+
+    /**
+     * Registers how values of a custom type are read from the configuration.
+     *
+     * <p>The accessor is used for {@link IField} fields of that type and for the argument
+     * of single-argument custom type constructors. Built-in types ({@link String},
+     * {@link Integer}, {@link Long}, {@link Double}, {@link Float}, {@link Boolean}, {@link List},
+     * {@link Section}, ...) are already registered and can be overridden the same way.
+     * Register custom types before building the first manager that binds them, field
+     * bindings are resolved once per class.
+     *
+     * <p>Example usage:
+     * <pre>{@code
+     * ConfigManager.registerType(UUID.class, (section, path) -> {
+     *     String raw = section.getString(path);
+     *     return raw == null ? null : UUID.fromString(raw);
+     * });
+     * }</pre>
+     *
+     * @param type the value type
+     * @param accessor reads the value at the given path, returning {@code null} when absent
+     * @param <T> the value type
+     * @since 1.0
+     */
+    public static <T> void registerType(Class<T> type, BiFunction<Section, String, T> accessor) {
+        ConfigUtils.registerAccessor(type, accessor);
+    }
+
+    /**
+     * Loads every {@code .yml}/{@code .yaml} file of a folder into its own instance of {@code type},
+     * in parallel on a shared virtual-thread-per-task executor.
+     *
+     * <p>Example usage:
+     * <pre>{@code
+     * ConfigDirectory<KitConfig> kits = ConfigManager.directory(dataPath.resolve("kits"), KitConfig.class);
+     * Map<String, KitConfig> byName = kits.configs();
+     * }</pre>
+     *
+     * @param directory the folder
+     * @param type the config class of every file, needs a no-argument constructor
+     * @return the loaded folder
+     * @throws IOException if the folder can't be listed
+     * @throws IllegalArgumentException if the class has no no-argument constructor
+     * @see ConfigDirectory
+     * @since 1.0
+     */
+    public static <T extends IConfig> ConfigDirectory<T> directory(Path directory, Class<T> type) throws IOException {
+        return directory(directory, type, Builder.DefaultExecutor.INSTANCE);
+    }
+
+    /**
+     * Loads every {@code .yml}/{@code .yaml} file of a folder into its own instance of {@code type},
+     * see {@link #directory(Path, Class)}.
+     *
+     * @param directory the folder
+     * @param type the config class of every file, needs a no-argument constructor
+     * @param executor the executor loading the files, also used by {@link ConfigDirectory#reloadAll()}
+     * @return the loaded folder
+     * @throws IOException if the folder can't be listed
+     * @throws IllegalArgumentException if the class has no no-argument constructor
+     * @since 1.0
+     */
+    public static <T extends IConfig> ConfigDirectory<T> directory(Path directory, Class<T> type, Executor executor) throws IOException {
+        ConfigDirectory<T> configs = new ConfigDirectory<>(directory, type, Objects.requireNonNull(executor));
+        configs.loadAll();
+        return configs;
+    }
+
     /**
      * Creates a builder for native Java applications.
      * 
@@ -288,7 +1076,25 @@ public class ConfigManager {
     }
 
 
-    private static YamlDocument createDoc(ConfigManager.Builder builder) throws Exception {
+    /**
+     * Opens the configuration file for parsing, read by the manager itself so reading and parsing are measured apart.
+     */
+    private static InputStream open(File file, boolean mapped, Measure measure) throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer content;
+        if (mapped) content = FileUtils.map(file.toPath());
+        else content = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        measure.read += System.nanoTime() - start;
+        measure.bytesRead += content.remaining();
+        measure.content = content;
+        return FileUtils.stream(content);
+    }
+
+    // updated explicitly on every inject, so updater changes can be detected
+    private static final LoaderSettings LOADER_SETTINGS = LoaderSettings.builder().setAutoUpdate(false).build();
+    private static final UpdaterSettings UPDATER_SETTINGS = UpdaterSettings.builder().setAutoSave(false).build();
+
+    private static YamlDocument createDoc(ConfigManager.Builder builder, Measure measure) throws Exception {
         /*switch (builder.type) {
             case NATIVE -> {
                 configFile = new File(builder.file);
@@ -313,49 +1119,69 @@ public class ConfigManager {
             }
         }*/
 
-        if (builder.stream == null) builder.stream = builder.loader.getResourceAsStream(builder.file);
-
-        builder.resources = builder.stream != null;
-        
-        LoaderSettings loaderSettings = LoaderSettings.builder()
-                .setAutoUpdate(builder.resources)
-                .build();
+        byte[] defaults = builder.defaults();
 
         File configFile;
 
         if (builder.path == null) configFile = new File(builder.file);
         else configFile = new File(builder.path.toFile(), builder.file);
 
-        return YamlDocument.create(configFile, Objects.requireNonNull(builder.stream),
-                GeneralSettings.DEFAULT,
-                loaderSettings,
-                DumperSettings.DEFAULT);
+        // the document is stream based, a missing file is created from the defaults like BoostedYAML does
+        if (!configFile.exists() && defaults != null) FileUtils.writeAtomic(configFile.toPath(), defaults);
+        try (InputStream in = open(configFile, builder.mapped, measure)) {
+            long start = System.nanoTime();
+            YamlDocument document = defaults == null
+                    ? YamlDocument.create(in, GeneralSettings.DEFAULT, LOADER_SETTINGS, DumperSettings.DEFAULT, UPDATER_SETTINGS)
+                    : YamlDocument.create(in, new ByteArrayInputStream(defaults), GeneralSettings.DEFAULT, LOADER_SETTINGS, DumperSettings.DEFAULT, UPDATER_SETTINGS);
+            measure.parse += System.nanoTime() - start;
+            return document;
+        }
     }
 
-    private static YamlDocument loadConfig(ConfigManager.Builder builder) throws Exception {
-        YamlDocument cfg = createDoc(builder);
+    /**
+     * Creates a document holding the tree read from the {@link ConfigCache}, without file.
+     * The defaults are attached like on a parsed file, the cached tree lacks the routes only
+     * the defaults have when the updater was skipped at the target version.
+     */
+    private static YamlDocument cachedDoc(ConfigManager.Builder builder, Map<Object, Object> tree) throws IOException {
+        byte[] defaults = builder.defaults();
+        YamlDocument cfg = defaults == null
+                ? YamlDocument.create(InputStream.nullInputStream(), GeneralSettings.DEFAULT, LOADER_SETTINGS, DumperSettings.DEFAULT, UPDATER_SETTINGS)
+                : YamlDocument.create(InputStream.nullInputStream(), new ByteArrayInputStream(defaults), GeneralSettings.DEFAULT, LOADER_SETTINGS, DumperSettings.DEFAULT, UPDATER_SETTINGS);
+        if (!builder.boostedSettings.isEmpty()) cfg.setSettings(builder.boostedSettings.toArray(new Settings[]{}));
+        tree.forEach((key, value) -> cfg.set(Route.fromSingleKey(key), value));
+        return cfg;
+    }
+
+    private static YamlDocument loadConfig(ConfigManager.Builder builder, Measure measure) throws Exception {
+        YamlDocument cfg = createDoc(builder, measure);
         if (!builder.boostedSettings.isEmpty()) cfg.setSettings(builder.boostedSettings.toArray(new Settings[]{}));
         if (builder.version.isPresent()) {
-            /*UpdaterSettings update = ConfigUpdater.createUpdaterSettings( TODO
-                    "version",
-                    builder.version.get(),
-                    builder.backups,
-                    builder.backupPrefix,
-                    builder.maxBackups,
-                    builder.logger
-            );*/
             UpdaterSettings update = UpdaterSettings.builder()
                     .setVersioning(new BasicVersioning("version"))
+                    .setAutoSave(false)
                     .setOptionSorting(UpdaterSettings.DEFAULT_OPTION_SORTING).build();
             cfg.setSettings(update);
         }
-        cfg.save();
-        cfg.update();
         return cfg;
     }
     
 
     
+    /**
+     * Phase timings and counters of the load in progress, see {@link ConfigMetrics.Sample}.
+     */
+    private static final class Measure {
+        private long read, parse, update, inject, save;
+        private long bytesRead, bytesWritten;
+        private int fields;
+        private ConfigEvents.Loading event;
+        /**
+         * The file content read by this load, handed to the {@link ConfigBackups} when a save replaces it.
+         */
+        private ByteBuffer content;
+    }
+
     /**
      * Builder class for creating ConfigManager instances with a fluent API.
      * 
@@ -407,8 +1233,11 @@ public class ConfigManager {
         private boolean backups = false;
         private String backupPrefix = "bp_%nr%_";
         private int maxBackups = 3;
+        private boolean backupCompression = false;
+        private final List<Migration> migrations = new ArrayList<>();
         private List<Settings> boostedSettings = new ArrayList<>();
         private final List<IConfig> configs = new ArrayList<>();
+        private final List<Class<? extends IConfig>> snapshotTypes = new ArrayList<>();
 
         private ClassLoader loader;
         private Path path;
@@ -421,6 +1250,19 @@ public class ConfigManager {
 
         private boolean resources = false;
 
+        private Duration watch;
+
+        private boolean cache = false;
+        private boolean mapped = false;
+        private boolean parallel = false;
+        private final List<ConfigMetrics> metrics = new ArrayList<>();
+        private boolean jmx = false;
+        private byte[] defaults;
+        private boolean shard = false;
+
+        private Executor executor;
+        private Executor callbacks = Runnable::run;
+
         Builder(String file) {
             this.file = file;
         }
@@ -440,23 +1282,78 @@ public class ConfigManager {
             return this;
         }
 
+        /**
+         * Marks a {@link ConfigDirectory} shard: there are no bundled defaults and the file is never created.
+         */
+        Builder shard() {
+            this.shard = true;
+            return this;
+        }
+
+        /**
+         * Reads the resource defaults once, so the document can be created again from them.
+         *
+         * @return the defaults, {@code null} for a {@link #shard()}
+         */
+        byte[] defaults() throws IOException {
+            if (defaults != null || shard) return defaults;
+            if (stream == null) stream = loader.getResourceAsStream(file);
+            resources = stream != null;
+            try (InputStream in = Objects.requireNonNull(stream)) {
+                defaults = in.readAllBytes();
+            }
+            return defaults;
+        }
+
+        String key() {
+            return path == null ? file : path.resolve(file).toString();
+        }
+
 
         /**
          * Enables versioning for the configuration file and sets the version string.
          * When versioning is enabled, the configuration file will automatically track
          * version changes and can perform migrations between versions.
          * 
+         * <p>While the file is at this version the defaults are not merged into it again,
+         * loads skip the updater. Keys added to the bundled defaults without a version bump are
+         * not written to the file, they only read their default value. Earlier releases merged
+         * the defaults on every load, as is still done for unversioned files.
+         * Bump the version together with the bundled defaults.
+         *
          * @param version the version string in semantic versioning format
          *                (e.g., "1", "1.0", "1.0.0", "2.3.1")
          * @return this Builder instance for method chaining
          * @throws NullPointerException if version is null
+         * @throws IllegalArgumentException if version is not a dotted number
          * @see BasicVersioning
+         * @see #migration(String, String, ConfigMigration)
          */
         public Builder version(String version) {
+            Version.of(Objects.requireNonNull(version));
             this.version = Optional.of(version);
             return this;
         }
 
+        /**
+         * Registers a migration step, run when the file is at version {@code from}
+         * and the {@link #version(String) configured version} is {@code to} or newer.
+         * Steps are chained, each one starting at the version the previous one reached.
+         *
+         * @param from the version the step migrates from
+         * @param to the version the step migrates to, greater than {@code from}
+         * @param migration the step
+         * @return this Builder instance for method chaining
+         * @throws IllegalArgumentException if a version is not a dotted number or {@code to} is not greater than {@code from}
+         * @see ConfigMigration
+         */
+        public Builder migration(String from, String to, ConfigMigration migration) {
+            Version start = Version.of(from), end = Version.of(to);
+            if (end.compareTo(start) <= 0) throw new IllegalArgumentException("Migration has to go to a greater version: "+from+" -> "+to);
+            this.migrations.add(new Migration(start, end, Objects.requireNonNull(migration)));
+            return this;
+        }
+
         /**
          * Enables or disables debug mode for the ConfigManager.
          * When enabled, the library will propagate exceptions instead of handling them silently,
@@ -470,11 +1367,131 @@ public class ConfigManager {
             return this;
         }
 
+        /**
+         * Sets the executor the success and failure callbacks run on, for example the main
+         * thread scheduler of a server. By default callbacks run on the thread that loaded
+         * or reloaded the configuration.
+         *
+         * @param callbacks the executor for {@code success}/{@code failed} callbacks
+         * @return this Builder instance for method chaining
+         * @throws NullPointerException if callbacks is null
+         */
+        public Builder callbackExecutor(Executor callbacks) {
+            this.callbacks = Objects.requireNonNull(callbacks);
+            return this;
+        }
+
+        /**
+         * Watches the configuration file and reloads it automatically when it changes on disk.
+         *
+         * <p>All watching managers share one background thread. Events are debounced, a burst of
+         * writes within {@code debounce} of each other (as editors produce for a single save)
+         * results in one {@link ConfigManager#reload()}. The reload is skipped if the file
+         * content did not actually change.
+         *
+         * @param debounce how long the file has to stay quiet before it is reloaded
+         * @return this Builder instance for method chaining
+         * @throws NullPointerException if debounce is null
+         * @see ConfigManager#unwatch()
+         */
+        public Builder watch(Duration debounce) {
+            this.watch = Objects.requireNonNull(debounce);
+            return this;
+        }
+
+        /**
+         * Enables the binary config cache.
+         *
+         * <p>After every load the merged configuration is stored in a sidecar file next to the
+         * config ({@code .config.yml.icache} for {@code config.yml}), together with fingerprints
+         * of the config file, the bundled resource and the bound config classes. As long as none
+         * of them changed, the next start restores the configuration from the cache without
+         * parsing the file or running the updater, only the bundled defaults are parsed. The
+         * file is parsed on the first reload.
+         *
+         * @param cache {@code true} to enable the cache
+         * @return this Builder instance for method chaining
+         */
+        public Builder cache(boolean cache) {
+            this.cache = cache;
+            return this;
+        }
+
+        /**
+         * Reads the configuration file memory-mapped instead of through a file stream.
+         *
+         * <p>Saves the read syscalls and the heap copy of the raw bytes, the parser still decodes
+         * them through its own reader. Parsing and merging dominate the load time, so even for
+         * large files the difference is within measurement noise, enable it only if the raw byte
+         * copy matters for heap usage. Applies to the initial load and every reload.
+         *
+         * <p>Ignored on Windows, where a file can't be replaced on save while a mapping of it
+         * is still alive.
+         *
+         * @param mapped {@code true} to memory-map the file
+         * @return this Builder instance for method chaining
+         */
+        public Builder memoryMapped(boolean mapped) {
+            this.mapped = mapped;
+            return this;
+        }
+
+        /**
+         * Binds independent nested {@link IConfig}s in parallel on the common {@link ForkJoinPool}.
+         *
+         * <p>The nested configs of a config, and the registered configs themselves, are bound concurrently,
+         * each config still after the config holding it. Worth it for large configs with many nested
+         * sections. Accessors registered through {@link ConfigManager#registerType} and single-argument
+         * constructors of custom types have to be thread-safe then. Errors are reported in the same order
+         * as without parallel injection, {@link me.verschuls.icfg.annotations.OnInject OnInject} methods
+         * still run on the loading thread.
+         *
+         * @param parallel {@code true} to bind in parallel
+         * @return this Builder instance for method chaining
+         */
+        public Builder parallelInjection(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        /**
+         * Registers a listener receiving the phase timings and counters of every load and reload.
+         *
+         * @param listener the listener
+         * @return this Builder instance for method chaining
+         * @throws NullPointerException if listener is null
+         * @see ConfigMetrics
+         */
+        public Builder metrics(ConfigMetrics listener) {
+            this.metrics.add(Objects.requireNonNull(listener));
+            return this;
+        }
+
+        /**
+         * Exposes the load metrics of the manager as a JMX MBean, named
+         * {@code me.verschuls.icfg:type=ConfigManager,name="<absolute path of the file>"}. A manager built
+         * later for the same file replaces the MBean once the old manager was garbage collected, while it
+         * is still reachable the new MBean gets an additional {@code instance=<n>} key.
+         *
+         * @param jmx {@code true} to register the MBean
+         * @return this Builder instance for method chaining
+         * @see ConfigManagerMXBean
+         */
+        public Builder jmx(boolean jmx) {
+            this.jmx = jmx;
+            return this;
+        }
+
         /**
          * Enables or disables automatic backup creation for the configuration file.
-         * When enabled, the ConfigManager will create backup copies of the configuration
-         * file before performing save or reload operations, providing a safety mechanism
-         * against data loss or corruption.
+         * When enabled, the ConfigManager will create a backup copy of the configuration
+         * file content every time a save replaces it (e.g. when the updater merged new defaults),
+         * providing a safety mechanism against data loss or corruption.
+         *
+         * <p>Backups are written off the loading thread, on the executor passed to
+         * {@link #buildAsync(Executor, Consumer, Consumer)} or a shared virtual-thread executor,
+         * loads and saves never wait for them. A backup is skipped if its content equals
+         * the newest existing backup.
          * 
          * @param backups {@code true} to enable automatic backups,
          *                {@code false} to disable backup creation
@@ -495,8 +1512,9 @@ public class ConfigManager {
          * 
          * <p>Example prefixes:
          * <ul>
-         *   <li>{@code "backup_"} - creates backup_config.yml</li>
-         *   <li>{@code "bp_%nr%_"} - creates bp_1_config.yml, bp_2_config.yml, etc.</li>
+         *   <li>{@code "backup_"} - creates backup_config.yml, overwritten by every backup</li>
+         *   <li>{@code "bp_%nr%_"} - creates bp_1_config.yml, bp_2_config.yml, etc., the highest number
+         *       is the newest backup and the oldest are deleted beyond {@code maxBackups}</li>
          * </ul>
          * 
          * @param prefix the prefix to use for backup file names, may contain {@code %nr%} placeholder
@@ -506,11 +1524,24 @@ public class ConfigManager {
          * @throws IllegalArgumentException if maxBackups is less than -1
          */
         public Builder backupSettings(String prefix, int maxBackups) {
+            if (maxBackups < -1) throw new IllegalArgumentException("maxBackups must be at least -1, was "+maxBackups);
             this.backupPrefix = prefix;
             this.maxBackups = maxBackups;
             return this;
         }
 
+        /**
+         * Compresses backups with gzip, the backup file names get a {@code .gz} suffix.
+         * Only has effect when backups are enabled via {@link #backups(boolean)}.
+         *
+         * @param gzip {@code true} to gzip backups
+         * @return this Builder instance for method chaining
+         */
+        public Builder backupCompression(boolean gzip) {
+            this.backupCompression = gzip;
+            return this;
+        }
+
         /**
          * Provides advanced configuration options for the underlying BoostedYAML library.
          * This method allows fine-grained control over YAML processing behavior including
@@ -560,6 +1591,33 @@ public class ConfigManager {
         }
 
 
+        /**
+         * Registers configuration classes in snapshot mode.
+         *
+         * <p>Instead of injecting into a live object, every load and reload creates fresh
+         * instances of these classes, binds them completely and then publishes them with one
+         * atomic swap. Read them through {@link ConfigManager#current(Class)}. A reload with
+         * errors keeps the previous snapshot. Snapshot classes need a no-argument constructor.
+         *
+         * <p>Example usage:
+         * <pre>{@code
+         * ConfigManager manager = builder.snapshot(GameConfig.class).build(success, failed);
+         * // on the game thread
+         * GameConfig config = manager.current(GameConfig.class);
+         * }</pre>
+         *
+         * @param type the snapshot class
+         * @param types additional snapshot classes (optional)
+         * @return this Builder instance for method chaining
+         * @throws NullPointerException if type or one of types is null
+         */
+        @SafeVarargs
+        public final Builder snapshot(Class<? extends IConfig> type, Class<? extends IConfig>... types) {
+            this.snapshotTypes.add(Objects.requireNonNull(type));
+            for (Class<? extends IConfig> other : types) this.snapshotTypes.add(Objects.requireNonNull(other));
+            return this;
+        }
+
         /**
          * Builds and returns a fully configured {@link ConfigManager} instance.
          * This method performs the following operations:
@@ -568,7 +1626,7 @@ public class ConfigManager {
          *   <li>Applies all configured settings (versioning, backups, etc.)</li>
          *   <li>Automatically loads default values from resources if available</li>
          *   <li>Registers all provided {@link IConfig} implementations</li>
-         *   <li>Performs initial save and update operations</li>
+         *   <li>Merges defaults and saves the file, only if that changed its content</li>
          * </ol>
          * 
          * <p><strong>Note:</strong> The library will automatically detect and load a default
@@ -610,5 +1668,39 @@ public class ConfigManager {
             this.failed = failed;
             return new ConfigManager(this);
         }
+
+        /**
+         * Builds the {@link ConfigManager} off the calling thread, on a shared
+         * virtual-thread-per-task executor.
+         *
+         * @see #buildAsync(Executor, Consumer, Consumer)
+         */
+        public CompletableFuture<ConfigManager> buildAsync(Consumer<ConfigManager> success, Consumer<List<String>> failed) {
+            return buildAsync(DefaultExecutor.INSTANCE, success, failed);
+        }
+
+        /**
+         * Builds the {@link ConfigManager} off the calling thread.
+         *
+         * <p>File I/O, parsing, the updater merge and injection run on {@code executor},
+         * which is also used by {@link ConfigManager#reloadAsync()}. The callbacks run on
+         * the {@link #callbackExecutor(Executor) callback executor}.
+         *
+         * @param executor the executor loading the configuration
+         * @param success invoked when the configuration is loaded, see {@link #build(Consumer, Consumer)}
+         * @param failed invoked with the failed paths, see {@link #build(Consumer, Consumer)}
+         * @return a future completed with the manager once the configuration is loaded
+         * @since 1.0
+         */
+        public CompletableFuture<ConfigManager> buildAsync(Executor executor, Consumer<ConfigManager> success, Consumer<List<String>> failed) {
+            this.success = success;
+            this.failed = failed;
+            this.executor = Objects.requireNonNull(executor);
+            return CompletableFuture.supplyAsync(() -> new ConfigManager(this), executor);
+        }
+
+        static final class DefaultExecutor {
+            static final ExecutorService INSTANCE = Executors.newVirtualThreadPerTaskExecutor();
+        }
     }
 }
@@ -0,0 +1,60 @@
+package me.verschuls.icfg;
+
+import java.util.List;
+
+/**
+ * JMX view of a {@link ConfigManager}, registered through {@link ConfigManager.Builder#jmx(boolean)}.
+ *
+ * <p>Timings are those of the last load or reload, in nanoseconds. Counters and byte totals
+ * accumulate over the lifetime of the manager.
+ *
+ * @see ConfigMetrics
+ * @since 1.0
+ */
+public interface ConfigManagerMXBean {
+
+    String getFile();
+
+    /**
+     * @return loads including the initial one
+     */
+    long getLoadCount();
+
+    long getReloadCount();
+
+    /**
+     * @return loads and reloads that reported errors
+     */
+    long getFailureCount();
+
+    /**
+     * @return the failed paths of the last load, empty if it succeeded
+     */
+    List<String> getLastErrors();
+
+    long getLastReadNanos();
+
+    long getLastParseNanos();
+
+    long getLastUpdateNanos();
+
+    long getLastInjectNanos();
+
+    long getLastSaveNanos();
+
+    long getLastTotalNanos();
+
+    /**
+     * @return the slowest load or reload so far
+     */
+    long getMaxTotalNanos();
+
+    long getBytesRead();
+
+    long getBytesWritten();
+
+    /**
+     * @return fields assigned by the last load, reloads only rebind changed fields
+     */
+    int getLastFieldsBound();
+}
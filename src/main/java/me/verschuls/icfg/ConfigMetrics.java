@@ -0,0 +1,66 @@
+package me.verschuls.icfg;
+
+import java.util.List;
+
+/**
+ * Listener receiving measurements of every load and reload of a {@link ConfigManager}.
+ *
+ * <p>Register listeners through {@link ConfigManager.Builder#metrics(ConfigMetrics)}, or expose
+ * the measurements over JMX with {@link ConfigManager.Builder#jmx(boolean)}. Listeners are called
+ * on the loading thread, right before the success or failure callback is dispatched, and should
+ * return quickly.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * builder.metrics(sample -> {
+ *     if (sample.totalNanos() > TICK_BUDGET_NANOS)
+ *         logger.warn("Reload of " + sample.file() + " took " + sample.totalNanos() / 1_000_000 + " ms");
+ * });
+ * }</pre>
+ *
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface ConfigMetrics {
+
+    /**
+     * Called once per load or reload.
+     *
+     * @param sample the measurements of the load
+     */
+    void loaded(Sample sample);
+
+    /**
+     * Measurements of a single load or reload. Phases that did not run report {@code 0}.
+     *
+     * @param file the configuration file name
+     * @param reload {@code false} for the initial load
+     * @param readNanos reading the file
+     * @param parseNanos parsing the file and the defaults
+     * @param updateNanos the updater merging the defaults
+     * @param injectNanos binding the registered configs and snapshots
+     * @param saveNanos writing the file
+     * @param bytesRead bytes of the configuration file read
+     * @param bytesWritten bytes of the configuration file written, {@code 0} if it was not saved
+     * @param fieldsBound fields assigned during injection
+     * @param errors the paths that failed, empty on success
+     */
+    record Sample(String file, boolean reload,
+                  long readNanos, long parseNanos, long updateNanos, long injectNanos, long saveNanos,
+                  long bytesRead, long bytesWritten, int fieldsBound, List<String> errors) {
+
+        /**
+         * @return the sum of all phases
+         */
+        public long totalNanos() {
+            return readNanos + parseNanos + updateNanos + injectNanos + saveNanos;
+        }
+
+        /**
+         * @return {@code true} if the load reported errors
+         */
+        public boolean failed() {
+            return !errors.isEmpty();
+        }
+    }
+}
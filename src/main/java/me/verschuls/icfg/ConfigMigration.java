@@ -0,0 +1,34 @@
+package me.verschuls.icfg;
+
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+
+/**
+ * A migration step of a versioned configuration, moving the file content from one version to another.
+ *
+ * <p>Register steps through {@link ConfigManager.Builder#migration(String, String, ConfigMigration)}.
+ * When the file version is older than the {@link ConfigManager.Builder#version(String) configured version}
+ * the manager runs the steps leading from the file version to the configured one, before the
+ * defaults are merged. Each step has to start exactly at the version the file is at, steps
+ * spanning several versions are preferred over chains of smaller ones. If no step starts at the
+ * reached version while later ones exist, or a step throws, migration stops, the failed step is
+ * undone and the defaults are not merged.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * builder.version("3")
+ *     .migration("1", "2", config -> config.set("database.host", config.getString("db-host")))
+ *     .migration("2", "3", config -> config.remove("db-host"));
+ * }</pre>
+ *
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface ConfigMigration {
+
+    /**
+     * Migrates the file content in place. Keys missing afterward are added from the defaults.
+     *
+     * @param config the root section of the configuration file
+     */
+    void migrate(Section config);
+}
@@ -0,0 +1,163 @@
+package me.verschuls.icfg;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Loads and reloads many configuration files in parallel.
+ *
+ * <p>Builders added to the registry are built concurrently on a bounded pool instead of one
+ * after another, so startup time is bound by the slowest file rather than the sum of all
+ * files. {@link #reloadAll()} reloads every manager with the same parallelism.
+ *
+ * <p>Example usage:
+ * <pre>{@code
+ * ConfigRegistry registry = new ConfigRegistry(8)
+ *     .add(ConfigManager.builderNative("config.yml", loader).register(settings), success, failed)
+ *     .add(ConfigManager.builderNative("messages.yml", loader).register(messages), success, failed);
+ * ConfigRegistry.Report report = registry.loadAll();
+ * if (!report.isSuccess()) report.errors().forEach((file, paths) -> logger.error(file + ": " + paths));
+ * }</pre>
+ *
+ * @see ConfigManager.Builder
+ * @since 1.0
+ */
+public class ConfigRegistry {
+
+    private final int parallelism;
+    private final Map<String, Pending> pending = new LinkedHashMap<>();
+    private final Map<String, ConfigManager> managers = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry loading on as many threads as there are available processors.
+     */
+    public ConfigRegistry() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the maximum number of files loaded at the same time
+     * @throws IllegalArgumentException if parallelism is less than 1
+     */
+    public ConfigRegistry(int parallelism) {
+        if (parallelism < 1) throw new IllegalArgumentException("Parallelism must be at least 1");
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Adds a configuration to be built by the next {@link #loadAll()}.
+     *
+     * @param builder the configured builder
+     * @param success see {@link ConfigManager.Builder#build(Consumer, Consumer)}
+     * @param failed see {@link ConfigManager.Builder#build(Consumer, Consumer)}
+     * @return this registry for method chaining
+     * @throws IllegalArgumentException if a builder for the same file was already added
+     */
+    public synchronized ConfigRegistry add(ConfigManager.Builder builder, Consumer<ConfigManager> success, Consumer<List<String>> failed) {
+        String key = builder.key();
+        if (pending.containsKey(key) || managers.containsKey(key))
+            throw new IllegalArgumentException("Config \""+key+"\" is already registered");
+        pending.put(key, new Pending(builder, success, failed));
+        return this;
+    }
+
+    /**
+     * Builds every added configuration that was not built yet, in parallel.
+     *
+     * @return timings and errors of the built files
+     */
+    public Report loadAll() {
+        Map<String, Pending> builds;
+        synchronized (this) {
+            builds = new LinkedHashMap<>(pending);
+            pending.clear();
+        }
+        return run(builds, pending -> pending.builder.build(pending.success, pending.failed));
+    }
+
+    /**
+     * Reloads every built configuration in parallel.
+     *
+     * @return timings and errors of the reloaded files
+     */
+    public Report reloadAll() {
+        Map<String, ConfigManager> reloads = new LinkedHashMap<>(managers);
+        return run(reloads, manager -> {
+            manager.reload();
+            return manager;
+        });
+    }
+
+    /**
+     * @param file the file name as passed to the builder, resolved against its data path if it had one
+     * @return the manager of that file, or {@code null} if it is not loaded
+     */
+    public ConfigManager get(String file) {
+        return managers.get(file);
+    }
+
+    /**
+     * @return all loaded managers keyed by file
+     */
+    public Map<String, ConfigManager> getManagers() {
+        return Collections.unmodifiableMap(managers);
+    }
+
+    private <T> Report run(Map<String, T> tasks, Function<T, ConfigManager> task) {
+        long start = System.nanoTime();
+        Map<String, Duration> timings = new ConcurrentHashMap<>();
+        Map<String, List<String>> errors = new ConcurrentHashMap<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(Math.min(parallelism, Math.max(1, tasks.size())))) {
+            List<Future<?>> futures = new ArrayList<>();
+            tasks.forEach((key, value) -> futures.add(pool.submit(() -> {
+                long begin = System.nanoTime();
+                try {
+                    ConfigManager manager = task.apply(value);
+                    managers.put(key, manager);
+                    if (!manager.getErrors().isEmpty()) errors.put(key, manager.getErrors());
+                    else if (!manager.isLoaded()) errors.put(key, List.of(key));
+                } catch (RuntimeException e) {
+                    errors.put(key, List.of(String.valueOf(e)));
+                } finally {
+                    timings.put(key, Duration.ofNanos(System.nanoTime() - begin));
+                }
+            })));
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        Map<String, Duration> ordered = new LinkedHashMap<>();
+        for (String key : tasks.keySet()) if (timings.containsKey(key)) ordered.put(key, timings.get(key));
+        return new Report(Collections.unmodifiableMap(ordered), Map.copyOf(errors), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private record Pending(ConfigManager.Builder builder, Consumer<ConfigManager> success, Consumer<List<String>> failed) {}
+
+    /**
+     * Outcome of {@link #loadAll()} or {@link #reloadAll()}.
+     *
+     * @param timings how long each file took, in registration order
+     * @param errors failed paths by file, or the cause if the file could not be loaded at all,
+     *               only files with errors are present
+     * @param total wall clock time of the whole operation
+     */
+    public record Report(Map<String, Duration> timings, Map<String, List<String>> errors, Duration total) {
+
+        /**
+         * @return {@code true} if every file loaded without errors
+         */
+        public boolean isSuccess() {
+            return errors.isEmpty();
+        }
+    }
+}
@@ -2,23 +2,154 @@ package me.verschuls.icfg;
 
 import dev.dejvokep.boostedyaml.YamlDocument;
 import dev.dejvokep.boostedyaml.block.implementation.Section;
+import dev.dejvokep.boostedyaml.route.Route;
 
-import java.lang.reflect.Method;
+import java.math.BigInteger;
+import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
 
 class ConfigUtils {
 
+    /**
+     * Typed accessors keyed by the requested value type, resolved once instead of
+     * looking up the matching {@code YamlDocument#getX} method on every read.
+     */
+    private static final Map<Class<?>, BiFunction<Section, String, ?>> ACCESSORS = new ConcurrentHashMap<>();
+
+    static {
+        ACCESSORS.put(String.class, Section::getString);
+        ACCESSORS.put(Integer.class, Section::getInt);
+        ACCESSORS.put(Long.class, Section::getLong);
+        ACCESSORS.put(Double.class, Section::getDouble);
+        ACCESSORS.put(Float.class, Section::getFloat);
+        ACCESSORS.put(Short.class, Section::getShort);
+        ACCESSORS.put(Byte.class, Section::getByte);
+        ACCESSORS.put(Boolean.class, Section::getBoolean);
+        ACCESSORS.put(Character.class, Section::getChar);
+        ACCESSORS.put(BigInteger.class, Section::getBigInt);
+        ACCESSORS.put(List.class, Section::getList);
+        ACCESSORS.put(Section.class, Section::getSection);
+        ACCESSORS.put(int.class, Section::getInt);
+        ACCESSORS.put(long.class, Section::getLong);
+        ACCESSORS.put(double.class, Section::getDouble);
+        ACCESSORS.put(float.class, Section::getFloat);
+        ACCESSORS.put(short.class, Section::getShort);
+        ACCESSORS.put(byte.class, Section::getByte);
+        ACCESSORS.put(boolean.class, Section::getBoolean);
+        ACCESSORS.put(char.class, Section::getChar);
+        // sequences are unboxed once per load, reads of the field are then primitive
+        ACCESSORS.put(int[].class, (section, path) -> !section.isList(path) ? null
+                : section.getIntList(path).stream().mapToInt(Integer::intValue).toArray());
+        ACCESSORS.put(long[].class, (section, path) -> !section.isList(path) ? null
+                : section.getLongList(path).stream().mapToLong(Long::longValue).toArray());
+        ACCESSORS.put(double[].class, (section, path) -> !section.isList(path) ? null
+                : section.getDoubleList(path).stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    /**
+     * Route based counterparts of the built-in {@link #ACCESSORS}, used by {@link ConfigKey}.
+     */
+    private static final Map<Class<?>, BiFunction<Section, Route, ?>> ROUTE_ACCESSORS = new ConcurrentHashMap<>();
+
+    static {
+        ROUTE_ACCESSORS.put(String.class, Section::getString);
+        ROUTE_ACCESSORS.put(Integer.class, Section::getInt);
+        ROUTE_ACCESSORS.put(Long.class, Section::getLong);
+        ROUTE_ACCESSORS.put(Double.class, Section::getDouble);
+        ROUTE_ACCESSORS.put(Float.class, Section::getFloat);
+        ROUTE_ACCESSORS.put(Short.class, Section::getShort);
+        ROUTE_ACCESSORS.put(Byte.class, Section::getByte);
+        ROUTE_ACCESSORS.put(Boolean.class, Section::getBoolean);
+        ROUTE_ACCESSORS.put(Character.class, Section::getChar);
+        ROUTE_ACCESSORS.put(BigInteger.class, Section::getBigInt);
+        ROUTE_ACCESSORS.put(List.class, Section::getList);
+        ROUTE_ACCESSORS.put(Section.class, Section::getSection);
+        ROUTE_ACCESSORS.put(int[].class, (section, route) -> !section.isList(route) ? null
+                : section.getIntList(route).stream().mapToInt(Integer::intValue).toArray());
+        ROUTE_ACCESSORS.put(long[].class, (section, route) -> !section.isList(route) ? null
+                : section.getLongList(route).stream().mapToLong(Long::longValue).toArray());
+        ROUTE_ACCESSORS.put(double[].class, (section, route) -> !section.isList(route) ? null
+                : section.getDoubleList(route).stream().mapToDouble(Double::doubleValue).toArray());
+    }
+
+    static <T> void registerAccessor(Class<T> type, BiFunction<Section, String, T> accessor) {
+        ACCESSORS.put(Objects.requireNonNull(type), Objects.requireNonNull(accessor));
+        ROUTE_ACCESSORS.remove(type);
+    }
+
+    /**
+     * Compiles the reader of a {@link ConfigKey}. Built-in types read by route, registered
+     * types through their accessor with the original path, anything else is cast if it matches.
+     */
+    static <T> BiFunction<Section, Route, T> routeAccessor(String path, Class<T> type) {
+        BiFunction<Section, Route, ?> byRoute = ROUTE_ACCESSORS.get(type);
+        if (byRoute != null) return (BiFunction<Section, Route, T>) byRoute;
+        BiFunction<Section, String, ?> byPath = ACCESSORS.get(type);
+        if (byPath != null) return (section, route) -> (T) byPath.apply(section, path);
+        return (section, route) -> {
+            Object value = section.get(route);
+            return type.isInstance(value) ? type.cast(value) : null;
+        };
+    }
+
+    static boolean hasAccessor(Class<?> type) {
+        return ACCESSORS.containsKey(type);
+    }
+
     private final YamlDocument config;
 
-    private ConfigUtils(YamlDocument config) {
+    private boolean dirty = false;
+
+    /**
+     * Writes held back by a {@link #fork()} until it is joined, {@code null} for the utils owning the document.
+     */
+    private final List<Map.Entry<String, Object>> writes;
+
+    private ConfigUtils(YamlDocument config, List<Map.Entry<String, Object>> writes) {
         this.config = config;
+        this.writes = writes;
     }
 
     protected static ConfigUtils of(YamlDocument cfg) {
-        return new ConfigUtils(cfg);
+        return new ConfigUtils(cfg, null);
+    }
+
+    /**
+     * Creates utils reading the same document, with their own errors and held back writes,
+     * so a binding task never touches state shared with other tasks. The document is only
+     * read until the fork is {@link #join joined}.
+     *
+     * @return the fork
+     */
+    public ConfigUtils fork() {
+        return new ConfigUtils(config, new ArrayList<>());
+    }
+
+    /**
+     * Appends the errors of a finished {@link #fork()} and applies its writes, or holds them back
+     * if these utils are a fork themselves. Joining forks in a fixed order gives a fixed error order.
+     *
+     * @param fork the fork
+     */
+    public void join(ConfigUtils fork) {
+        errors.addAll(fork.errors);
+        for (Map.Entry<String, Object> write : fork.writes) write(write.getKey(), write.getValue());
+    }
+
+    private void write(String path, Object value) {
+        if (writes != null) {
+            writes.add(new AbstractMap.SimpleImmutableEntry<>(path, value));
+            return;
+        }
+        config.set(path, value);
+        dirty = true;
     }
 
     private final List<String> errors = new ArrayList<>();
@@ -39,6 +170,31 @@ class ConfigUtils {
         return new ArrayList<>(errors);
     }
 
+    public int errorCount() {
+        return errors.size();
+    }
+
+    /**
+     * Removes and returns the errors reported after {@code mark}.
+     *
+     * @param mark a previous {@link #errorCount()}
+     * @return the removed errors
+     */
+    public List<String> cutErrors(int mark) {
+        List<String> tail = errors.subList(mark, errors.size());
+        List<String> cut = new ArrayList<>(tail);
+        tail.clear();
+        return cut;
+    }
+
+    public void clearErrors() {
+        errors.clear();
+    }
+
+    public void retainErrors(Predicate<String> filter) {
+        errors.removeIf(filter.negate());
+    }
+
     private <T> T getValueValidate(String path, Class<T> class_) {
         T defaultValue = (T) defaultValue(class_);
         if (class_.equals(String.class))
@@ -50,71 +206,95 @@ class ConfigUtils {
     }
 
     public <T> T getValue(String path, Class<T> class_) {
-        try {
-            Method method = config.getClass().getMethod("get"+ capitalizeWords(class_.getSimpleName().toLowerCase().replace("integer", "int")), String.class);
-            return (T) method.invoke(config, path);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+        BiFunction<Section, String, ?> accessor = ACCESSORS.get(class_);
+        if (accessor != null) return (T) accessor.apply(config, path);
+        Object value = config.get(path);
+        return class_.isInstance(value) ? class_.cast(value) : null;
     }
 
-    public void configure(String path, RefField field, boolean required, boolean resources) {
+    public void configure(String path, RefField field, Object instance, boolean required, boolean resources) {
+        Object current = field.get(instance);
+        Object value = resolve(path, field.getType(), current, required, resources);
+        if (value != current) field.set(instance, value);
+    }
+
+    /**
+     * Resolves the value a field of the given type should hold after injection.
+     *
+     * @param path the full path of the value
+     * @param type the field type
+     * @param current the value the field currently holds
+     * @return the value to assign, {@code current} if the field should be left untouched
+     */
+    public <T> T resolve(String path, Class<T> type, T current, boolean required, boolean resources) {
+        T value = resolveValue(path, type, current, required, resources);
+        // primitive fields can't hold null, keep their value
+        return value == null && type.isPrimitive() ? current : value;
+    }
+
+    private <T> T resolveValue(String path, Class<T> type, T current, boolean required, boolean resources) {
         if (resources) {
-            if (field.getType() == Section.class) {
+            if (type == Section.class) {
                 Section section = getSection(path);
                 if (section == null) {
                     reportError(path);
-                    return;
+                    return current;
                 }
                 if (section.isEmpty(false) && required) {
                     reportError(path);
-                    return;
+                    return current;
                 }
-                field.set(section);
-                return;
+                return (T) section;
             }
-            if (field.getType() == HashMap.class) {
+            if (type == HashMap.class) {
                 HashMap<String, Object> section = getSectionAsHashMap(path);
                 if (section.isEmpty() && required) {
                     reportError(path);
-                    return;
+                    return current;
                 }
-                field.set(section);
-                return;
+                return (T) section;
             }
-            field.set(required ? getValueValidate(path, field.getType()) : getValue(path, field.getType()));
-            return;
+            return required ? getValueValidate(path, type) : getValue(path, type);
         }
         if (required)
-            if (field.get() == null) {
+            if (current == null) {
                 reportError(path);
-                return;
+                return current;
             }
-        if (field.getType() == Section.class) {
+        if (type == Section.class) {
             //if (LOGGER != null) LOGGER.accept("Skipping \""+path+"\" since its Section and has no defaults");
-            field.set(null);
-            return;
+            return null;
         }
-        if (field.getType() == HashMap.class) {
-            HashMap<String, Object> hashMap = ((HashMap<String, Object>)field.get());
+        if (type == HashMap.class) {
+            HashMap<String, Object> hashMap = ((HashMap<String, Object>) current);
             Section section = config.getSection(path);
             if (!section.isEmpty(false)) {
                 for (String key : section.getKeys().stream().map(Object::toString).toList())
                     hashMap.put(key, section.get(key));
-                return;
+                return current;
             }
-            if (hashMap.isEmpty()) return;
+            if (hashMap.isEmpty()) return current;
             hashMap.forEach((k, v)-> {
-                config.set(path+"."+k, v);
+                write(path+"."+k, v);
             });
-            return;
-        }
-        Object value = getValue(path, field.getType());
-        if (value == null) {
-            field.set(getValue(path, field.getType()));
-            return;
+            return current;
         }
-        field.set(required ? getValueValidate(path, field.getType()) : getValue(path, field.getType()));
+        T value = getValue(path, type);
+        if (value == null) return null;
+        return required ? getValueValidate(path, type) : value;
+    }
+
+    /**
+     * Resolves the value of a {@link Lazy} field on first access.
+     *
+     * @param path the full path of the value
+     * @param type the value type of the {@link Lazy}
+     * @return the value, an empty map for an absent {@link HashMap} section
+     */
+    public Object resolveLazy(String path, Class<?> type) {
+        if (type == HashMap.class) return config.isSection(path) ? getSectionAsHashMap(path) : new HashMap<>();
+        if (type == Section.class) return getSection(path);
+        return getValue(path, type);
     }
 
     public boolean isEmpty(String path) {
@@ -134,20 +314,19 @@ class ConfigUtils {
     }
 
     public void set(String path, Object value) {
-        config.set(path, value);
+        if (Objects.equals(config.get(path), value)) return;
+        write(path, value);
     }
 
-    private static String capitalizeWords(String input) {
-        StringBuilder sb = new StringBuilder();
-        String[] words = input.split("\\s+");
-        for (String word : words) {
-            if (!word.isEmpty()) {
-                String lowercaseWord = word.toLowerCase();
-                String capitalizedWord = lowercaseWord.substring(0, 1).toUpperCase() + lowercaseWord.substring(1);
-                sb.append(capitalizedWord).append(" ");
-            }
-        }
-        return sb.toString().trim();
+    /**
+     * Whether values were written to the document since the last call, resets the flag.
+     *
+     * @return {@code true} if the document has to be saved
+     */
+    public boolean takeDirty() {
+        boolean dirty = this.dirty;
+        this.dirty = false;
+        return dirty;
     }
 
     private static Object defaultValue(Class<?> class_) {
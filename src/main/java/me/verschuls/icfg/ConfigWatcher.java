@@ -0,0 +1,149 @@
+package me.verschuls.icfg;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Shared file watcher backing {@link ConfigManager.Builder#watch(Duration)}.
+ *
+ * <p>A single daemon thread watches the directories of all watched configs. Events for a
+ * file only push its reload deadline back by the debounce, so the burst of writes an
+ * editor produces for one save (temp file, rename, several modifies) ends in one reload.
+ * The reload is skipped when size, modification time or content hash show the file did
+ * not actually change. Reloads run through {@link ConfigManager#reloadAsync()}, so a slow
+ * reload of one file doesn't hold back the others.
+ */
+final class ConfigWatcher implements Runnable {
+
+    private static ConfigWatcher instance;
+
+    static synchronized ConfigWatcher get() throws IOException {
+        if (instance == null) {
+            instance = new ConfigWatcher(FileSystems.getDefault().newWatchService());
+            Thread thread = new Thread(instance, "IsekaiConfig-Watcher");
+            thread.setDaemon(true);
+            thread.start();
+        }
+        return instance;
+    }
+
+    private final WatchService service;
+    private final Map<Path, WatchKey> directories = new ConcurrentHashMap<>();
+    private final List<Entry> entries = new CopyOnWriteArrayList<>();
+
+    private ConfigWatcher(WatchService service) {
+        this.service = service;
+    }
+
+    void watch(Path file, ConfigManager manager, Duration debounce) throws IOException {
+        Path absolute = file.toAbsolutePath().normalize();
+        Path directory = absolute.getParent();
+        if (!directories.containsKey(directory))
+            directories.put(directory, directory.register(service,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY));
+        Entry entry = new Entry(absolute, manager, debounce.toNanos());
+        entry.changed();
+        entries.add(entry);
+    }
+
+    void unwatch(ConfigManager manager) {
+        entries.removeIf(entry -> entry.manager == manager);
+    }
+
+    /**
+     * Re-reads the fingerprint of the manager's file, so its own saves don't trigger a reload.
+     */
+    void refresh(ConfigManager manager) {
+        for (Entry entry : entries)
+            if (entry.manager == manager) entry.changed();
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            long now = System.nanoTime();
+            long wait = Long.MAX_VALUE;
+            for (Entry entry : entries)
+                if (entry.deadline != -1) wait = Math.min(wait, entry.deadline - now);
+            WatchKey key;
+            try {
+                if (wait == Long.MAX_VALUE) key = service.take();
+                else key = wait > 0 ? service.poll(wait, TimeUnit.NANOSECONDS) : service.poll();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            now = System.nanoTime();
+            if (key != null) {
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Path file = event.kind() == StandardWatchEventKinds.OVERFLOW ? null : directory.resolve((Path) event.context());
+                    for (Entry entry : entries) {
+                        if (file == null ? !entry.file.getParent().equals(directory) : !entry.file.equals(file)) continue;
+                        entry.deadline = now + entry.debounce;
+                    }
+                }
+                if (!key.reset()) directories.remove(directory);
+            }
+            for (Entry entry : entries) {
+                if (entry.deadline == -1 || entry.deadline - now > 0) continue;
+                entry.deadline = -1;
+                if (!entry.changed()) continue;
+                entry.manager.reloadAsync().whenComplete((result, e) -> {
+                    if (e == null) return;
+                    System.err.println("Error occurred while reloading watched config | "+entry.file);
+                    if (entry.manager.isDebug()) e.printStackTrace(System.console().writer());
+                });
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final Path file;
+        private final ConfigManager manager;
+        private final long debounce;
+        private long deadline = -1;
+
+        private long size = -1;
+        private long modified = -1;
+        private long hash = -1;
+
+        private Entry(Path file, ConfigManager manager, long debounce) {
+            this.file = file;
+            this.manager = manager;
+            this.debounce = debounce;
+        }
+
+        /**
+         * Updates the fingerprint of the file.
+         *
+         * @return {@code true} if the content differs from the previous fingerprint
+         */
+        private synchronized boolean changed() {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                long size = attributes.size();
+                long modified = attributes.lastModifiedTime().toMillis();
+                if (size == this.size && modified == this.modified) return false;
+                CRC32C crc = new CRC32C();
+                crc.update(Files.readAllBytes(file));
+                long hash = crc.getValue();
+                boolean changed = hash != this.hash || size != this.size;
+                this.size = size;
+                this.modified = modified;
+                this.hash = hash;
+                return changed;
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
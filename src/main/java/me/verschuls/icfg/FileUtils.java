@@ -0,0 +1,140 @@
+package me.verschuls.icfg;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.Arrays;
+
+class FileUtils {
+
+    /**
+     * Whether a file can be replaced while a mapping of it is alive. Windows refuses to
+     * move a file over a mapped one, and Java cannot unmap a buffer before it is collected.
+     */
+    static final boolean REPLACE_MAPPED = !System.getProperty("os.name", "").regionMatches(true, 0, "Windows", 0, 7);
+
+    /**
+     * Crash-safe replacement of {@code target} with {@code content}.
+     *
+     * <p>The content is written to a sibling temp file, forced to disk and moved over the
+     * target atomically, so a crash or a full disk leaves either the old or the new file,
+     * never a truncated one. Nothing is written if the file already holds exactly these bytes.
+     * If the target is a symbolic link the file it points to is replaced, the link is kept.
+     *
+     * @return {@code true} if the file was written, {@code false} if it was already up to date
+     */
+    public static boolean writeAtomic(Path target, byte[] content) throws IOException {
+        if (sameContent(target, content)) return false;
+        if (Files.exists(target)) target = target.toRealPath();
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        // created like a regular file (not Files.createTempFile), so it gets the usual default permissions
+        Path temp = directory.resolve("." + target.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(content);
+                while (buffer.hasRemaining()) channel.write(buffer);
+                channel.force(true);
+            }
+            copyPermissions(target, temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        forceDirectory(directory);
+        return true;
+    }
+
+    /**
+     * Maps {@code file} read-only. Reads are served straight from the page cache, without
+     * a read syscall per buffer and without copying the file into a heap array. The mapping
+     * stays valid after the channel is closed and is released once the buffer is unreachable.
+     * Where {@link #REPLACE_MAPPED} holds it also stays valid after the file is replaced by
+     * {@link #writeAtomic}, elsewhere the replacement fails while the mapping is alive.
+     */
+    public static MappedByteBuffer map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /**
+     * Opens {@code file} memory-mapped, see {@link #map(Path)}.
+     */
+    public static InputStream openMapped(Path file) throws IOException {
+        return stream(map(file));
+    }
+
+    /**
+     * Streams the remaining bytes of {@code buffer} without moving its position.
+     */
+    public static InputStream stream(ByteBuffer buffer) {
+        return new BufferInputStream(buffer.duplicate());
+    }
+
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        private BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+            if (length == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            length = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static boolean sameContent(Path file, byte[] content) {
+        try {
+            if (!Files.isRegularFile(file) || Files.size(file) != content.length) return false;
+            return Arrays.equals(Files.readAllBytes(file), content);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) {
+        try {
+            if (Files.exists(from)) Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        } catch (IOException | UnsupportedOperationException ignored) {}
+    }
+
+    /**
+     * Persists the rename itself, not supported on every platform.
+     */
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException ignored) {}
+    }
+}
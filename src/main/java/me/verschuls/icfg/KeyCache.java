@@ -0,0 +1,111 @@
+package me.verschuls.icfg;
+
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Per-manager cache of {@link ConfigKey} values, one array slot per key index.
+ *
+ * <p>A slot is filled on the first read after a load and served from the array until
+ * {@link #invalidate()} replaces the whole generation. Object values live in the object
+ * slot, primitive keys store their raw bits in the {@code long} slot and mark the object
+ * slot as filled, so primitive reads never box. Reading a primitive key through
+ * {@link #get} goes through the same slot and only boxes the result.
+ */
+final class KeyCache {
+
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final Object NULL = new Object();
+    private static final Object PRIMITIVE = new Object();
+
+    private volatile Generation generation = new Generation(ConfigKey.count());
+
+    /**
+     * Drops every cached value, called once the document is fully (re)loaded.
+     */
+    void invalidate() {
+        generation = new Generation(ConfigKey.count());
+    }
+
+    <T> T get(ConfigKey<T> key, Section document) {
+        return key.cached(this, document);
+    }
+
+    /**
+     * Reads a key through the object slot, primitive keys are routed to their own getter by {@link ConfigKey#cached}.
+     */
+    <T> T getObject(ConfigKey<T> key, Section document) {
+        Generation generation = slots(key.index());
+        Object cached = SLOT.getAcquire(generation.objects, key.index());
+        if (cached != null && cached != PRIMITIVE) return cached == NULL ? null : (T) cached;
+        T value = key.read(document);
+        SLOT.setRelease(generation.objects, key.index(), value == null ? NULL : value);
+        return value;
+    }
+
+    int getInt(ConfigKey.IntKey key, Section document) {
+        Generation generation = slots(key.index());
+        if (SLOT.getAcquire(generation.objects, key.index()) == PRIMITIVE) return (int) generation.primitives[key.index()];
+        int value = key.readInt(document);
+        generation.fill(key.index(), value);
+        return value;
+    }
+
+    long getLong(ConfigKey.LongKey key, Section document) {
+        Generation generation = slots(key.index());
+        if (SLOT.getAcquire(generation.objects, key.index()) == PRIMITIVE) return generation.primitives[key.index()];
+        long value = key.readLong(document);
+        generation.fill(key.index(), value);
+        return value;
+    }
+
+    double getDouble(ConfigKey.DoubleKey key, Section document) {
+        Generation generation = slots(key.index());
+        if (SLOT.getAcquire(generation.objects, key.index()) == PRIMITIVE)
+            return Double.longBitsToDouble(generation.primitives[key.index()]);
+        double value = key.readDouble(document);
+        generation.fill(key.index(), Double.doubleToRawLongBits(value));
+        return value;
+    }
+
+    boolean getBoolean(ConfigKey.BooleanKey key, Section document) {
+        Generation generation = slots(key.index());
+        if (SLOT.getAcquire(generation.objects, key.index()) == PRIMITIVE) return generation.primitives[key.index()] != 0;
+        boolean value = key.readBoolean(document);
+        generation.fill(key.index(), value ? 1 : 0);
+        return value;
+    }
+
+    /**
+     * Returns the current generation, replaced by a larger empty one if the key was created after it.
+     */
+    private Generation slots(int index) {
+        Generation generation = this.generation;
+        if (index < generation.objects.length) return generation;
+        synchronized (this) {
+            generation = this.generation;
+            if (index < generation.objects.length) return generation;
+            generation = new Generation(Math.max(ConfigKey.count(), index + 1));
+            this.generation = generation;
+            return generation;
+        }
+    }
+
+    private static final class Generation {
+
+        private final Object[] objects;
+        private final long[] primitives;
+
+        private Generation(int size) {
+            this.objects = new Object[size];
+            this.primitives = new long[size];
+        }
+
+        private void fill(int index, long bits) {
+            primitives[index] = bits;
+            SLOT.setRelease(objects, index, PRIMITIVE);
+        }
+    }
+}
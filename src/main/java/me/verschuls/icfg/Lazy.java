@@ -0,0 +1,85 @@
+package me.verschuls.icfg;
+
+import java.util.function.Supplier;
+
+/**
+ * Field type for values that are only read from the configuration when first accessed.
+ *
+ * <p>A {@code Lazy} field is not converted during injection, the manager only checks that the
+ * path exists if the field is required. The value is resolved on the first {@link #get()} and
+ * cached until a reload changes something below its path. Use it for large sections of which
+ * only a few are read per session:
+ * <pre>{@code
+ * @IField(path = "loot.tables")
+ * private Lazy<HashMap<String, Object>> lootTables;
+ *
+ * Object table = lootTables.get().get("dungeon");
+ * }</pre>
+ *
+ * <p>Supported value types are {@link java.util.HashMap HashMap} (a copy of the section),
+ * {@link dev.dejvokep.boostedyaml.block.implementation.Section Section} and every type that can
+ * be injected directly. The manager creates and assigns the instance, leave the field uninitialized.
+ *
+ * <p>Values are never read from a document that is being reloaded. A {@code Lazy} of a
+ * {@link ConfigManager#current(Class) snapshot} holds the value of the load that built the snapshot,
+ * it is resolved at the latest when the next reload starts.
+ *
+ * @param <T> the value type
+ * @since 1.0
+ */
+public final class Lazy<T> implements Supplier<T> {
+
+    private static final Object UNRESOLVED = new Object();
+
+    private Supplier<T> source;
+    private volatile Object value = UNRESOLVED;
+
+    Lazy() {}
+
+    /**
+     * Returns the value, resolving it on the first call after injection or a reload.
+     *
+     * @return the value, {@code null} if the path is absent and the type has no empty value
+     * @throws IllegalStateException if the field was never injected
+     */
+    @Override
+    public T get() {
+        Object value = this.value;
+        if (value != UNRESOLVED) return (T) value;
+        while (true) {
+            Supplier<T> source;
+            synchronized (this) {
+                if (this.value != UNRESOLVED) return (T) this.value;
+                if (this.source == null) throw new IllegalStateException("Lazy value was not injected");
+                source = this.source;
+            }
+            // resolved outside the monitor, the source waits for a running reload which may reset this instance
+            T resolved = source.get();
+            synchronized (this) {
+                if (this.source != source) continue;
+                if (this.value == UNRESOLVED) this.value = resolved;
+                return (T) this.value;
+            }
+        }
+    }
+
+    /**
+     * Whether the value was resolved since the last injection.
+     *
+     * @return {@code true} if {@link #get()} will not read the configuration
+     */
+    public boolean isResolved() {
+        return value != UNRESOLVED;
+    }
+
+    synchronized void reset(Supplier<T> source) {
+        this.source = source;
+        this.value = UNRESOLVED;
+    }
+
+    @Override
+    public String toString() {
+        Object value = this.value;
+        return value == UNRESOLVED ? "Lazy[unresolved]" : "Lazy[" + value + "]";
+    }
+}
@@ -1,65 +1,113 @@
 package me.verschuls.icfg;
 
-import dev.dejvokep.boostedyaml.block.implementation.Section;
+import me.verschuls.icfg.annotations.ConfigInfo;
+import me.verschuls.icfg.annotations.OnInject;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 
+/**
+ * Binding plan of a class. Holds everything that can be resolved once per class
+ * (constructor, bindable fields, {@link ConfigInfo} metadata, {@link OnInject} method) so reloads only
+ * transfer values. Instances are cached per class in {@link RefUtils}.
+ */
 class RefClass<T> {
 
     private final Class<T> class_;
 
     private Constructor<T> constructor;
 
-    private T instance;
+    private MethodHandle constructorHandle;
+
+    private final ConfigInfo info;
 
     private final List<RefField> fields = new ArrayList<>();
 
+    private final List<RefField> annotatedFields;
+
+    private Method onInject;
+
+    private MethodHandle onInjectHandle;
+
     RefClass(Class<T> class_) {
         this.class_ = class_;
+        this.info = class_.getAnnotation(ConfigInfo.class);
         for (Constructor cs : class_.getDeclaredConstructors()) {
-            cs.setAccessible(true);
             if (cs.getParameterCount() > 1) continue;
+            if (!trySetAccessible(cs)) continue;
             this.constructor = cs;
+            if (RefUtils.HANDLES) {
+                try {
+                    this.constructorHandle = MethodHandles.lookup().unreflectConstructor(cs)
+                            .asType(MethodType.genericMethodType(cs.getParameterCount()));
+                } catch (IllegalAccessException ignored) {}
+            }
             break;
         }
         for (Field field : class_.getDeclaredFields()) {
-            field.setAccessible(true);
+            if (Modifier.isStatic(field.getModifiers())) continue;
             if (List.class.isAssignableFrom(field.getType())) {
-                ParameterizedType listType = (ParameterizedType) field.getGenericType();
-                Class<?> type = (Class<?>)listType.getActualTypeArguments()[0];
+                if (!(field.getGenericType() instanceof ParameterizedType listType)) continue;
+                if (!(listType.getActualTypeArguments()[0] instanceof Class<?> type)) continue;
                 if (!ConfigManager.ALLOWED_IN_LIST.contains(type)) continue;
             }
             if (!isAllowed(field.getType())) continue;
+            if (!trySetAccessible(field)) continue;
             fields.add(new RefField<>(field, this));
         }
+        this.annotatedFields = fields.stream().filter(RefField::isAnnotated).toList();
+        for (Method method : class_.getDeclaredMethods()) {
+            if (!method.isAnnotationPresent(OnInject.class)) continue;
+            if (Modifier.isStatic(method.getModifiers()) || method.getParameterCount() != 0) {
+                System.err.println("Ignoring @OnInject method \""+method.getName()+"\" in class \""+class_.getName()+"\", it has to be a parameterless instance method");
+                continue;
+            }
+            if (onInject != null) {
+                System.err.println("Ignoring @OnInject method \""+method.getName()+"\" in class \""+class_.getName()+"\", only one is allowed per class");
+                continue;
+            }
+            if (!trySetAccessible(method)) continue;
+            this.onInject = method;
+            if (RefUtils.HANDLES) {
+                try {
+                    this.onInjectHandle = MethodHandles.lookup().unreflect(method)
+                            .asType(MethodType.methodType(void.class, Object.class));
+                } catch (IllegalAccessException ignored) {}
+            }
+        }
     }
 
+    private static boolean trySetAccessible(AccessibleObject object) {
+        try {
+            object.setAccessible(true);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
 
     private static boolean isAllowed(Class<?> fieldType) {
         if (ConfigManager.ALLOWED_BASIC.contains(fieldType)) return true;
+        if (ConfigUtils.hasAccessor(fieldType)) return true;
         if (fieldType.equals(HashMap.class)) return true;
-        if (fieldType.equals(IConfig.class)) return true;
+        if (fieldType.equals(Lazy.class)) return true;
+        if (IConfig.class.isAssignableFrom(fieldType)) return true;
         if (fieldType.getDeclaredConstructors().length == 0) return false;
         return fieldType.getDeclaredConstructors()[0].getParameterCount() <= 1;
     }
 
-    RefClass(T instance) {
-        this.class_ = (Class<T>) instance.getClass();
-        this.instance = instance;
-        for (Field field : class_.getDeclaredFields()) {
-            field.setAccessible(true);
-            if (!isAllowed(field.getType())) continue;
-            fields.add(new RefField<>(field, this));
-        }
-    }
-
     public <A extends Annotation> A getAnnotation(Class<A> annotation) {
         return class_.getAnnotation(annotation);
     }
@@ -68,30 +116,74 @@ class RefClass<T> {
         return getAnnotation(annotation) != null;
     }
 
+    public ConfigInfo getInfo() {
+        return info;
+    }
+
+    /**
+     * Section prefix declared through {@link ConfigInfo#name()}, with trailing dot.
+     *
+     * @return the prefix, or {@code null} if the class has no {@link ConfigInfo} or an empty name
+     */
+    public String getSection() {
+        if (info == null || info.name().isEmpty()) return null;
+        return info.name() + ".";
+    }
+
+    public boolean isConfig() {
+        return IConfig.class.isAssignableFrom(class_);
+    }
 
-    public boolean isAssignableFrom(Class<?> class_) {
-        return class_.isAssignableFrom(class_);
+    public Class<T> getType() {
+        return class_;
     }
 
     public T createInstance() {
         try {
-            return this.instance == null ? this.instance = constructor.newInstance() : this.instance;
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            if (constructorHandle != null && constructor.getParameterCount() == 0)
+                return (T) (Object) constructorHandle.invokeExact();
+            return constructor.newInstance();
+        } catch (Throwable e) {
             return null;
         }
     }
 
-
     public T createInstance(Object... args) {
+        if (args.length != 1 || constructorHandle == null || constructor.getParameterCount() != 1) {
+            try {
+                return constructor.newInstance(args);
+            } catch (InvocationTargetException | InstantiationException | IllegalAccessException | IllegalArgumentException e) {
+                return null;
+            }
+        }
         try {
-            return this.instance == null ? this.instance = constructor.newInstance(args) : this.instance;
-        } catch (InvocationTargetException | InstantiationException | IllegalAccessException e) {
+            return (T) (Object) constructorHandle.invokeExact(args[0]);
+        } catch (Throwable e) {
             return null;
         }
     }
 
-    public T getInstance() {
-        return instance;
+    public boolean hasOnInject() {
+        return onInject != null;
+    }
+
+    /**
+     * Invokes the {@link OnInject} method of {@code instance}, if the class declares one.
+     *
+     * @param instance the injected instance
+     * @throws Throwable whatever the method throws
+     */
+    public void onInject(Object instance) throws Throwable {
+        if (onInject == null) return;
+        if (onInjectHandle != null) {
+            onInjectHandle.invokeExact(instance);
+            return;
+        }
+        try {
+            onInject.invoke(instance);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
     }
 
     public boolean hasConstructor() {
@@ -99,7 +191,7 @@ class RefClass<T> {
     }
 
     public boolean hasArguments() {
-        return constructor.getParameterCount() > 1;
+        return constructor.getParameterCount() > 0;
     }
 
     public Class<?>[] getArgTypes() {
@@ -111,7 +203,17 @@ class RefClass<T> {
     }
 
     public List<RefField> getAnnotatedFields() {
-        return getFields().stream().filter(RefField::isAnnotated).toList();
+        return annotatedFields;
+    }
+
+    /**
+     * Fields bound by the manager: every field when {@link ConfigInfo#allFields()} is set,
+     * otherwise only the {@link me.verschuls.icfg.annotations.IField IField} annotated ones.
+     *
+     * @return the bound fields
+     */
+    public List<RefField> getBoundFields() {
+        return info != null && info.allFields() ? fields : annotatedFields;
     }
 
 }
@@ -2,21 +2,83 @@ package me.verschuls.icfg;
 
 import me.verschuls.icfg.annotations.IField;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.HashMap;
 import java.util.List;
 
 class RefField<T> {
 
+    /**
+     * How the value of a field is produced, resolved once per field.
+     */
+    enum Kind {
+        /** Basic value, list, {@code Section} or {@code HashMap} handled by {@link ConfigUtils#configure}. */
+        BASIC,
+        /** Nested {@link IConfig}, instantiated and bound recursively. */
+        CONFIG,
+        /** Custom type built through its single-argument constructor. */
+        CUSTOM,
+        /** {@link Lazy} value, resolved on first access. */
+        LAZY
+    }
+
     private IField iField = null;
     private final Field field;
     private final RefClass<?> refClass;
+    private final String name;
+    private final Class<T> type;
+    private final Class<?> listType;
+    private final Class<?> lazyType;
+    private final String path;
+    private final boolean required;
+    private final Kind kind;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
 
     RefField(Field field_, RefClass<?> refClass) {
         this.field = field_;
         this.refClass = refClass;
-        field.setAccessible(true);
         if (field.isAnnotationPresent(IField.class)) iField = field.getAnnotation(IField.class);
+        this.name = field.getName();
+        this.type = (Class<T>) field.getType();
+        this.listType = List.class.isAssignableFrom(type)
+                ? (Class<?>) ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0]
+                : null;
+        this.lazyType = type == Lazy.class ? typeArgument(field.getGenericType()) : null;
+        this.path = iField == null || iField.path().isEmpty() ? name : iField.path();
+        this.required = iField != null && iField.required();
+        if (type == Lazy.class) this.kind = Kind.LAZY;
+        else if (isBasic(type)) this.kind = Kind.BASIC;
+        else if (IConfig.class.isAssignableFrom(type)) this.kind = Kind.CONFIG;
+        else this.kind = Kind.CUSTOM;
+        MethodHandle getter = null, setter = null;
+        if (RefUtils.HANDLES) {
+            try {
+                getter = MethodHandles.lookup().unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                setter = MethodHandles.lookup().unreflectSetter(field)
+                        .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                getter = setter = null;
+            }
+        }
+        this.getter = getter;
+        this.setter = setter;
+    }
+
+    /**
+     * Raw class of the single type argument, {@code Object} if the type is raw.
+     */
+    private static Class<?> typeArgument(Type type) {
+        if (!(type instanceof ParameterizedType parameterized)) return Object.class;
+        Type argument = parameterized.getActualTypeArguments()[0];
+        if (argument instanceof ParameterizedType nested) argument = nested.getRawType();
+        return argument instanceof Class<?> class_ ? class_ : Object.class;
     }
 
     public IField getAnnotation() {
@@ -28,36 +90,74 @@ class RefField<T> {
     }
 
     public String getName() {
-        field.setAccessible(true);
-        return field.getName();
+        return name;
+    }
+
+    /**
+     * @return whether fields of {@code type} are {@link Kind#BASIC}, read through an accessor
+     */
+    static boolean isBasic(Class<?> type) {
+        return ConfigManager.ALLOWED_BASIC.contains(type) || ConfigUtils.hasAccessor(type) || type.equals(HashMap.class);
     }
 
     public Class<T> getType() {
-        field.setAccessible(true);
-        return (Class<T>) field.getType();
+        return type;
     }
 
     public Class<?> getListType() {
-        if (List.class.isAssignableFrom(field.getType())) {
-            ParameterizedType listType = (ParameterizedType) field.getGenericType();
-            return (Class<?>) listType.getActualTypeArguments()[0];
-        }
-        return null;
+        return listType;
+    }
+
+    /**
+     * Value type of a {@link Kind#LAZY} field.
+     *
+     * @return the type argument of {@link Lazy}, {@code null} for other fields
+     */
+    public Class<?> getLazyType() {
+        return lazyType;
+    }
+
+    /**
+     * Path of this field relative to the section of its owning class.
+     *
+     * @return the {@link IField#path()} if set, otherwise the field name
+     */
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isRequired() {
+        return required;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Binding plan of the field type, used for {@link Kind#CONFIG} and {@link Kind#CUSTOM} fields.
+     *
+     * @return the cached plan of {@link #getType()}
+     */
+    public RefClass<T> getTypePlan() {
+        return RefUtils.fromClass(type);
     }
 
-    public void set(T value) {
+    public void set(Object instance, T value) {
         try {
-            field.set(refClass.getInstance(), value);
-        } catch (IllegalAccessException e) {
+            if (setter != null) setter.invokeExact(instance, (Object) value);
+            else field.set(instance, value);
+        } catch (Throwable e) {
             System.err.println("Exception while setting filed \""+getName()+"\"");
             e.printStackTrace(System.console().writer());
         }
     }
 
-    public T get() {
+    public T get(Object instance) {
         try {
-            return (T) field.get(refClass.getInstance());
-        } catch (IllegalArgumentException | IllegalAccessException e) {
+            if (getter != null) return (T) (Object) getter.invokeExact(instance);
+            return (T) field.get(instance);
+        } catch (Throwable e) {
             System.err.println("Exception while getting filed \""+getName()+"\"");
             e.printStackTrace(System.console().writer());
             return null;
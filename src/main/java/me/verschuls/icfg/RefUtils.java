@@ -2,15 +2,60 @@ package me.verschuls.icfg;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Optional;
 
 class RefUtils {
 
+    /**
+     * Whether field access and constructors go through {@link java.lang.invoke.MethodHandle MethodHandle}s
+     * resolved once per field, instead of {@link java.lang.reflect.Field#set Field.set}/{@link java.lang.reflect.Field#get Field.get}.
+     * Disable with {@code -Dicfg.reflection.legacy=true} to compare against plain reflection.
+     */
+    static final boolean HANDLES = !Boolean.getBoolean("icfg.reflection.legacy");
+
+    /**
+     * Binding plans keyed by class. {@link ClassValue} keeps the cache classloader safe,
+     * plans of unloaded plugin classes are collected together with their loader.
+     */
+    private static final ClassValue<RefClass<?>> PLANS = new ClassValue<>() {
+        @Override
+        protected RefClass<?> computeValue(Class<?> type) {
+            return new RefClass<>(type);
+        }
+    };
+
+    /**
+     * Generated {@link Binder}s keyed by config class, empty when none is on the classpath.
+     */
+    private static final ClassValue<Optional<Binder<?>>> BINDERS = new ClassValue<>() {
+        @Override
+        protected Optional<Binder<?>> computeValue(Class<?> type) {
+            String name = type.getName();
+            int pkg = name.lastIndexOf('.');
+            String binder = name.substring(0, pkg + 1) + name.substring(pkg + 1).replace('$', '_') + Binder.SUFFIX;
+            try {
+                Class<?> class_ = Class.forName(binder, true, type.getClassLoader());
+                if (!Binder.class.isAssignableFrom(class_)) return Optional.empty();
+                return Optional.of((Binder<?>) class_.getDeclaredConstructor().newInstance());
+            } catch (ClassNotFoundException | LinkageError e) {
+                return Optional.empty();
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Couldn't create binder \""+binder+"\", falling back to reflection");
+                return Optional.empty();
+            }
+        }
+    };
+
+    public static<T extends IConfig> Binder<T> binder(Class<T> tClass) {
+        return (Binder<T>) BINDERS.get(tClass).orElse(null);
+    }
+
     public static<T> RefClass<T> get(T instance) {
-        return new RefClass<>(instance);
+        return (RefClass<T>) fromClass(instance.getClass());
     }
 
     public static<T> RefClass<T> fromClass(Class<T> tClass) {
-        return new RefClass<>(tClass);
+        return (RefClass<T>) PLANS.get(tClass);
     }
 
     public static Object invokeMethod(Object instance, String name, Object... args) {
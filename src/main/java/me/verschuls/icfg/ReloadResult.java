@@ -0,0 +1,22 @@
+package me.verschuls.icfg;
+
+import java.util.List;
+
+/**
+ * Outcome of {@link ConfigManager#reload()}.
+ *
+ * <p>Lists the routes whose value changed, was added or was removed since the previous
+ * load. When a whole section was added or removed only the section route is listed.
+ *
+ * @param changed the changed routes, sorted
+ * @since 1.0
+ */
+public record ReloadResult(List<String> changed) {
+
+    /**
+     * @return {@code true} if at least one route changed
+     */
+    public boolean hasChanges() {
+        return !changed.isEmpty();
+    }
+}
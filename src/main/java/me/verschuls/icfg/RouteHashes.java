@@ -0,0 +1,190 @@
+package me.verschuls.icfg;
+
+import dev.dejvokep.boostedyaml.block.Block;
+import dev.dejvokep.boostedyaml.block.implementation.Section;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 64-bit content hashes of a document, one per section and one per value, keyed by the
+ * route parts below each section. Only valid within the running JVM.
+ *
+ * <p>The hash of a section does not depend on the order of its keys. Two trees are diffed
+ * top-down and only sections whose hash differs are descended into, so comparing two loads
+ * costs in proportion to what changed, not to the size of the file.
+ */
+final class RouteHashes {
+
+    static final RouteHashes EMPTY = new RouteHashes(0, new String[0], new long[0], null);
+
+    private static final long NULL = 0x9E3779B97F4A7C15L;
+
+    private final long hash;
+    private final String[] keys;
+    /**
+     * Hash of each child, the value hash or the section hash.
+     */
+    private final long[] hashes;
+    /**
+     * Hashes of each child section, {@code null} for values, the array is {@code null} without child sections.
+     */
+    private final RouteHashes[] sections;
+    /**
+     * Child index by key, built on the first diff entering this section.
+     */
+    private Map<String, Integer> index;
+
+    private RouteHashes(long hash, String[] keys, long[] hashes, RouteHashes[] sections) {
+        this.hash = hash;
+        this.keys = keys;
+        this.hashes = hashes;
+        this.sections = sections;
+    }
+
+    /**
+     * @return the hashes of {@code section} and everything below it
+     */
+    static RouteHashes of(Section section) {
+        Map<Object, Block<?>> blocks = section.getStoredValue();
+        String[] keys = new String[blocks.size()];
+        long[] hashes = new long[keys.length];
+        RouteHashes[] sections = null;
+        long hash = 0;
+        int i = 0;
+        for (Map.Entry<Object, Block<?>> entry : blocks.entrySet()) {
+            keys[i] = String.valueOf(entry.getKey());
+            if (entry.getValue() instanceof Section nested) {
+                if (sections == null) sections = new RouteHashes[keys.length];
+                sections[i] = of(nested);
+                hashes[i] = sections[i].hash;
+            } else hashes[i] = value(entry.getValue().getStoredValue());
+            hash += entry(keys[i], hashes[i]);
+            i++;
+        }
+        return new RouteHashes(hash, keys, hashes, sections);
+    }
+
+    /**
+     * @return the hash {@link #of(Section)} would compute, without keeping the tree
+     */
+    static long hash(Section section) {
+        long hash = 0;
+        for (Map.Entry<Object, Block<?>> entry : section.getStoredValue().entrySet()) {
+            long child = entry.getValue() instanceof Section nested ? hash(nested) : value(entry.getValue().getStoredValue());
+            hash += entry(String.valueOf(entry.getKey()), child);
+        }
+        return hash;
+    }
+
+    long hash() {
+        return hash;
+    }
+
+    /**
+     * Collects the routes whose value changed, was added or was removed between two trees.
+     * A section added or removed as a whole is collected together with every route below it,
+     * a section that only changed inside is not collected itself.
+     */
+    static void diff(RouteHashes previous, RouteHashes current, String prefix, Set<String> changed) {
+        if (previous.hash == current.hash) return;
+        Map<String, Integer> index = previous.index();
+        boolean[] kept = new boolean[previous.keys.length];
+        for (int i = 0; i < current.keys.length; i++) {
+            String route = prefix == null ? current.keys[i] : prefix + "." + current.keys[i];
+            RouteHashes after = current.section(i);
+            Integer j = index.get(current.keys[i]);
+            if (j == null) {
+                changed.add(route);
+                if (after != null) all(after, route, changed);
+                continue;
+            }
+            kept[j] = true;
+            RouteHashes before = previous.section(j);
+            if (before != null && after != null) diff(before, after, route, changed);
+            else if (before != null || after != null || previous.hashes[j] != current.hashes[i]) {
+                changed.add(route);
+                if (before != null) all(before, route, changed);
+                if (after != null) all(after, route, changed);
+            }
+        }
+        for (int j = 0; j < kept.length; j++) {
+            if (kept[j]) continue;
+            String route = prefix == null ? previous.keys[j] : prefix + "." + previous.keys[j];
+            changed.add(route);
+            if (previous.section(j) != null) all(previous.section(j), route, changed);
+        }
+    }
+
+    private RouteHashes section(int i) {
+        return sections == null ? null : sections[i];
+    }
+
+    private Map<String, Integer> index() {
+        if (index == null) {
+            Map<String, Integer> index = new HashMap<>(Math.max(4, (int) (keys.length / 0.75f) + 1));
+            for (int i = 0; i < keys.length; i++) index.put(keys[i], i);
+            this.index = index;
+        }
+        return index;
+    }
+
+    private static void all(RouteHashes section, String prefix, Set<String> routes) {
+        for (int i = 0; i < section.keys.length; i++) {
+            String route = prefix + "." + section.keys[i];
+            routes.add(route);
+            if (section.section(i) != null) all(section.section(i), route, routes);
+        }
+    }
+
+    private static long entry(String key, long value) {
+        return mix(string(key) * 31 + value);
+    }
+
+    /**
+     * Hashes a stored value. Values of different classes hash apart, like they compare unequal.
+     */
+    private static long value(Object value) {
+        if (value == null) return NULL;
+        long content;
+        if (value instanceof CharSequence text) content = string(text);
+        else if (value instanceof Double || value instanceof Float) content = Double.doubleToLongBits(((Number) value).doubleValue());
+        else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) content = ((Number) value).longValue();
+        else if (value instanceof Boolean bool) content = bool ? 1 : 2;
+        else if (value instanceof List<?> list) {
+            content = list.size();
+            for (Object element : list) content = content * 0x100000001B3L + value(element);
+        } else if (value instanceof Map<?, ?> map) {
+            content = map.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) content += mix(value(entry.getKey()) * 31 + value(entry.getValue()));
+        } else if (value instanceof Collection<?> collection) {
+            content = collection.size();
+            for (Object element : collection) content += mix(value(element));
+        } else content = value.hashCode();
+        return mix(content ^ ((long) value.getClass().hashCode() << 32));
+    }
+
+    /**
+     * FNV-1a over the chars, 64 bits wide unlike {@link String#hashCode()}.
+     */
+    private static long string(CharSequence text) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizer of SplitMix64, spreads every input bit over the whole hash.
+     */
+    private static long mix(long hash) {
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,95 @@
+package me.verschuls.icfg;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Parsed dotted version ({@code 1}, {@code 1.2}, {@code 1.2.3}, ...). Missing parts count as
+ * {@code 0}, so {@code 1.0} equals {@code 1}. Parsing is done once per distinct string.
+ */
+final class Version implements Comparable<Version> {
+
+    private static final int CACHE_LIMIT = 1024;
+    private static final Map<String, Version> CACHE = new ConcurrentHashMap<>();
+
+    private final int[] parts;
+    private final String text;
+
+    private Version(int[] parts, String text) {
+        this.parts = parts;
+        this.text = text;
+    }
+
+    /**
+     * @return the version, or {@code null} if {@code version} is {@code null} or not a dotted number
+     */
+    static Version parse(String version) {
+        if (version == null) return null;
+        Version cached = CACHE.get(version);
+        if (cached != null) return cached;
+        String trimmed = version.trim();
+        if (trimmed.isEmpty()) return null;
+        int[] parts = new int[1 + count(trimmed, '.')];
+        int part = 0;
+        long value = 0;
+        boolean digits = false;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '.') {
+                if (!digits) return null;
+                parts[part++] = (int) value;
+                value = 0;
+                digits = false;
+            } else if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+                if (value > Integer.MAX_VALUE) return null;
+                digits = true;
+            } else return null;
+        }
+        if (!digits) return null;
+        parts[part] = (int) value;
+        int length = parts.length;
+        while (length > 1 && parts[length - 1] == 0) length--;
+        Version parsed = new Version(length == parts.length ? parts : Arrays.copyOf(parts, length), trimmed);
+        if (CACHE.size() < CACHE_LIMIT) CACHE.putIfAbsent(version, parsed);
+        return parsed;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code version} is not a dotted number
+     */
+    static Version of(String version) {
+        if (version == null) throw new IllegalArgumentException("Version cannot be null");
+        Version parsed = parse(version);
+        if (parsed == null) throw new IllegalArgumentException("Invalid version format: " + version);
+        return parsed;
+    }
+
+    private static int count(String text, char c) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++)
+            if (text.charAt(i) == c) count++;
+        return count;
+    }
+
+    @Override
+    public int compareTo(Version other) {
+        return Arrays.compare(parts, other.parts);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof Version other && Arrays.equals(parts, other.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(parts);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
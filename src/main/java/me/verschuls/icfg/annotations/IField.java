@@ -15,6 +15,7 @@ import java.lang.annotation.Target;
  *   <li>{@link dev.dejvokep.boostedyaml.block.implementation.Section Section} - For reading YAML sections (requires default resources)</li>
  *   <li>Custom Classes with single Parameter constructor. Parameter type is required to be one of the above</li>
  *   <li>Nested {@link me.verschuls.icfg.IConfig IConfig} objects</li>
+ *   <li>{@link me.verschuls.icfg.Lazy Lazy} - Any of the above resolved on first access, e.g. {@code Lazy<HashMap<String, Object>>}</li>
  * </ul>
  * 
  * <h3>Example</h3>
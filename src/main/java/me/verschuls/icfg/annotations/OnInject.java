@@ -18,6 +18,16 @@ import java.lang.annotation.Target;
  *   <li>The method must be parameterless</li>
  *   <li>The method is called after ALL fields are injected, not during</li>
  *   <li>If field injection fails, this method will not be called</li>
+ *   <li>Exceptions thrown by the method are reported as error of the class to the {@code failed} callback</li>
+ * </ul>
+ *
+ * <h3>Order and Reloads</h3>
+ * <ul>
+ *   <li>Nested {@link me.verschuls.icfg.IConfig IConfig}s are called before the configs holding them,
+ *       so a parent sees the derived state of its children</li>
+ *   <li>On reload the method is only called if a value of the class or of one of its nested configs
+ *       changed, and at most once per reload</li>
+ *   <li>Snapshot classes are called on every new snapshot, before it is published</li>
  * </ul>
  * 
  * <h3>Common Use Cases</h3>
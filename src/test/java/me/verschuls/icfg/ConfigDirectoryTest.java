@@ -0,0 +1,40 @@
+package me.verschuls.icfg;
+
+import me.verschuls.icfg.annotations.ConfigInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigDirectoryTest {
+
+    @TempDir
+    Path dir;
+
+    @ConfigInfo(allFields = true)
+    public static class Arena implements IConfig {
+        String world;
+    }
+
+    @Test
+    void nameUsedByTwoExtensionsLoadsNeither() throws IOException {
+        Files.writeString(dir.resolve("desert.yml"), "world: sand\n");
+        Files.writeString(dir.resolve("jungle.yml"), "world: trees\n");
+        Files.writeString(dir.resolve("jungle.yaml"), "world: vines\n");
+
+        ConfigDirectory<Arena> arenas = ConfigManager.directory(dir, Arena.class);
+
+        assertEquals(Set.of("desert"), arenas.configs().keySet());
+        assertEquals("sand", arenas.get("desert").world);
+        assertNull(arenas.add("jungle"));
+        assertNull(arenas.get("jungle"));
+
+        Files.delete(dir.resolve("jungle.yaml"));
+        assertEquals("trees", arenas.add("jungle").world);
+    }
+}
@@ -0,0 +1,118 @@
+package me.verschuls.icfg;
+
+import me.verschuls.icfg.annotations.ConfigInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfigManagerTest {
+
+    @TempDir
+    Path dir;
+
+    @ConfigInfo(allFields = true)
+    static class Server implements IConfig {
+        String host;
+        String custom;
+    }
+
+    private ConfigManager.Builder builder(String defaults) {
+        return ConfigManager.builderMCPlugin("config.yml", dir, new ByteArrayInputStream(defaults.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void reloadOfMalformedFileKeepsFileAndValues() throws IOException {
+        Path file = dir.resolve("config.yml");
+        Files.writeString(file, "host: example\ncustom: value\n");
+        Server server = new Server();
+        List<List<String>> failures = new ArrayList<>();
+        ConfigManager manager = builder("host: dh\ncustom: dc\n").register(server).build(m -> {}, failures::add);
+        assertTrue(failures.isEmpty());
+
+        byte[] malformed = "host: [example\ncustom: value\n".getBytes(StandardCharsets.UTF_8);
+        Files.write(file, malformed);
+        ReloadResult result = manager.reload();
+
+        assertFalse(result.hasChanges());
+        assertEquals(1, failures.size());
+        assertArrayEquals(malformed, Files.readAllBytes(file));
+        assertEquals("example", server.host);
+        assertEquals("value", server.custom);
+
+        // the previous content is still loaded, a fixed file diffs against it
+        Files.writeString(file, "host: fixed\ncustom: value\n");
+        assertEquals(List.of("host"), manager.reload().changed());
+        assertEquals("fixed", server.host);
+        assertEquals("value", server.custom);
+    }
+
+    @ConfigInfo(name = "db", allFields = true)
+    static class Database implements IConfig {
+        String host;
+        int port;
+        String pool;
+    }
+
+    @Test
+    void migratedFileGetsKeysAddedByNewDefaults() throws IOException {
+        Path file = dir.resolve("config.yml");
+        Files.writeString(file, "version: 1\ndb-host: example\n");
+        Database database = new Database();
+        builder("version: 2\ndb:\n  host: localhost\n  port: 1\n  pool: small\n")
+                .register(database)
+                .version("2")
+                .migration("1", "2", config -> {
+                    config.set("db.host", config.getString("db-host"));
+                    config.remove("db-host");
+                })
+                .build(m -> {}, errors -> fail(errors.toString()));
+
+        assertEquals("example", database.host);
+        assertEquals(1, database.port);
+        assertEquals("small", database.pool);
+        String saved = Files.readString(file);
+        assertTrue(saved.contains("pool: small"), saved);
+        assertTrue(saved.contains("version: 2\n"), saved);
+        assertFalse(saved.contains("db-host"), saved);
+    }
+
+    @ConfigInfo(allFields = true)
+    static class Keys implements IConfig {
+        String host;
+        String added;
+    }
+
+    @Test
+    void cachedFileAtTargetVersionReadsDefaultOnlyKeys() throws IOException {
+        Files.writeString(dir.resolve("config.yml"), "version: 2\nhost: example\n");
+        String defaults = "version: 2\nhost: localhost\nadded: default\n";
+        for (int run = 0; run < 2; run++) {
+            Keys keys = new Keys();
+            builder(defaults).register(keys).version("2").cache(true).build(m -> {}, errors -> fail(errors.toString()));
+            assertTrue(Files.exists(dir.resolve(".config.yml.icache")));
+            assertEquals("example", keys.host, "run " + run);
+            assertEquals("default", keys.added, "run " + run);
+        }
+    }
+
+    @Test
+    void keysReadTheirDefaultWhenTheFileNeverLoaded() throws IOException {
+        Files.writeString(dir.resolve("config.yml"), "host: [example\n");
+        ConfigManager manager = builder("host: dh\n").register(new Server()).build(m -> {}, errors -> {});
+        assertFalse(manager.isLoaded());
+
+        assertNull(manager.get(ConfigKey.of("host", String.class)));
+        assertEquals(5, manager.get(ConfigKey.ofInt("port", 5)));
+        assertEquals(5, manager.getInt(ConfigKey.ofInt("port", 5)));
+        assertTrue(manager.getBoolean(ConfigKey.ofBoolean("enabled", true)));
+    }
+}